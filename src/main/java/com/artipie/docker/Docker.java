@@ -5,7 +5,10 @@
 
 package com.artipie.docker;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -30,4 +33,15 @@ public interface Docker {
      * @return Catalog.
      */
     CompletionStage<Catalog> catalog(Optional<RepoName> from, int limit);
+
+    /**
+     * Names of repositories containing blob with given digest.
+     * Used to mount blob without knowing source repository.
+     *
+     * @param digest Blob digest.
+     * @return Repository names, empty if registry does not index blobs.
+     */
+    default CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        return CompletableFuture.completedFuture(Collections.emptyList());
+    }
 }
@@ -7,6 +7,7 @@ package com.artipie.docker;
 
 import com.artipie.asto.Content;
 import com.artipie.docker.manifest.Manifest;
+import com.artipie.docker.manifest.ManifestInfo;
 import com.artipie.docker.ref.ManifestRef;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
@@ -35,6 +36,28 @@ public interface Manifests {
      */
     CompletionStage<Optional<Manifest>> get(ManifestRef ref);
 
+    /**
+     * Resolve manifest digest by reference.
+     * Implementations are expected to avoid reading manifest content when possible.
+     *
+     * @param ref Manifest reference.
+     * @return Manifest digest if it is found, empty if manifest is absent.
+     */
+    default CompletionStage<Optional<Digest>> digest(final ManifestRef ref) {
+        return this.get(ref).thenApply(manifest -> manifest.map(Manifest::digest));
+    }
+
+    /**
+     * Get manifest metadata by reference.
+     * Implementations are expected to avoid reading manifest content when possible.
+     *
+     * @param ref Manifest reference.
+     * @return Manifest metadata if it is found, empty if manifest is absent.
+     */
+    default CompletionStage<Optional<ManifestInfo>> info(final ManifestRef ref) {
+        return this.get(ref).thenApply(manifest -> manifest.map(ManifestInfo::new));
+    }
+
     /**
      * List manifest tags.
      *
@@ -75,6 +98,16 @@ public interface Manifests {
             return this.manifests.get(ref);
         }
 
+        @Override
+        public final CompletionStage<Optional<Digest>> digest(final ManifestRef ref) {
+            return this.manifests.digest(ref);
+        }
+
+        @Override
+        public final CompletionStage<Optional<ManifestInfo>> info(final ManifestRef ref) {
+            return this.manifests.info(ref);
+        }
+
         @Override
         public final CompletionStage<Tags> tags(final Optional<Tag> from, final int limit) {
             return this.manifests.tags(from, limit);
@@ -5,6 +5,7 @@
 package com.artipie.docker;
 
 import com.artipie.asto.Content;
+import com.artipie.docker.error.InvalidRangeException;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -55,6 +56,34 @@ public interface Upload {
      */
     CompletionStage<Long> append(Content chunk);
 
+    /**
+     * Appends a chunk of data to upload at specified position.
+     * Chunks are expected in order, so position should be equal to amount of bytes
+     * uploaded so far, otherwise {@link InvalidRangeException}
+     * occurs and chunk is not appended.
+     * By default only the first chunk is accepted by position, it is appended
+     * by {@link #append(Content)}, uploads tracking positions should override it.
+     *
+     * @param position Position of the first chunk byte in uploaded content.
+     * @param chunk Chunk of data.
+     * @return Offset after appending chunk.
+     */
+    default CompletionStage<Long> append(final long position, final Content chunk) {
+        final CompletionStage<Long> res;
+        if (position == 0) {
+            res = this.append(chunk);
+        } else {
+            final CompletableFuture<Long> failed = new CompletableFuture<>();
+            failed.completeExceptionally(
+                new InvalidRangeException(
+                    String.format("upload does not support appending chunk at %d", position)
+                )
+            );
+            res = failed;
+        }
+        return res;
+    }
+
     /**
      * Get offset for the uploaded content.
      *
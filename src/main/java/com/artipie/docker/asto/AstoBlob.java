@@ -8,8 +8,12 @@ import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.MetaCommon;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
+import io.reactivex.Flowable;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -27,6 +31,7 @@ public final class AstoBlob implements Blob {
     /**
      * Blob key.
      */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
     private final Key key;
 
     /**
@@ -34,6 +39,11 @@ public final class AstoBlob implements Blob {
      */
     private final Digest dig;
 
+    /**
+     * Blobs metadata cache.
+     */
+    private final BlobsCache cache;
+
     /**
      * Ctor.
      *
@@ -42,9 +52,25 @@ public final class AstoBlob implements Blob {
      * @param digest Blob digest.
      */
     public AstoBlob(final Storage storage, final Key key, final Digest digest) {
+        this(storage, key, digest, new BlobsCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param key Blob key.
+     * @param digest Blob digest.
+     * @param cache Blobs metadata cache.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AstoBlob(
+        final Storage storage, final Key key, final Digest digest, final BlobsCache cache
+    ) {
         this.storage = storage;
         this.key = key;
         this.dig = digest;
+        this.cache = cache;
     }
 
     @Override
@@ -54,13 +80,71 @@ public final class AstoBlob implements Blob {
 
     @Override
     public CompletionStage<Long> size() {
-        return this.storage.metadata(this.key).thenApply(
-            meta -> new MetaCommon(meta).size()
-        );
+        final OptionalLong cached = this.cache.size(this.key);
+        final CompletionStage<Long> res;
+        if (cached.isPresent()) {
+            res = CompletableFuture.completedFuture(cached.getAsLong());
+        } else {
+            res = this.storage.metadata(this.key).thenApply(
+                meta -> {
+                    final long size = new MetaCommon(meta).size();
+                    this.cache.size(this.key, size);
+                    return size;
+                }
+            );
+        }
+        return res;
     }
 
     @Override
     public CompletionStage<Content> content() {
-        return this.storage.value(this.key);
+        final HotBlobs hot = this.cache.hot();
+        final OptionalLong known = this.cache.size(this.key);
+        final CompletionStage<Content> res;
+        if (!hot.accepts(known.orElse(0L))) {
+            res = this.storage.value(this.key);
+        } else {
+            res = hot.get(this.key).<CompletionStage<Content>>map(
+                buf -> CompletableFuture.completedFuture(
+                    new Content.From(buf.remaining(), Flowable.fromCallable(buf::duplicate))
+                )
+            ).orElseGet(
+                () -> this.storage.value(this.key).thenCompose(
+                    content -> {
+                        final CompletionStage<Content> read;
+                        if (content.size().map(hot::accepts).orElse(false)) {
+                            read = new PublisherAs(content).bytes().thenApply(
+                                bytes -> {
+                                    hot.put(this.key, bytes);
+                                    return new Content.From(bytes);
+                                }
+                            );
+                        } else {
+                            read = CompletableFuture.completedFuture(content);
+                        }
+                        return read;
+                    }
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Storage key of blob data.
+     *
+     * @return Key.
+     */
+    Key key() {
+        return this.key;
+    }
+
+    /**
+     * Storage of blob data.
+     *
+     * @return Storage.
+     */
+    Storage storage() {
+        return this.storage;
     }
 }
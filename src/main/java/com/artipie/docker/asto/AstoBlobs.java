@@ -5,12 +5,17 @@
 
 package com.artipie.docker.asto;
 
+import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
 import com.artipie.docker.RepoName;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -19,6 +24,12 @@ import java.util.concurrent.CompletionStage;
  */
 public final class AstoBlobs implements BlobStore {
 
+    /**
+     * Repository name used to check if blob key depends on repository,
+     * it is not a valid name, so it never matches real repository.
+     */
+    private static final RepoName ANY = new RepoName.Simple("_any");
+
     /**
      * Storage.
      */
@@ -34,6 +45,16 @@ public final class AstoBlobs implements BlobStore {
      */
     private final RepoName name;
 
+    /**
+     * Blobs metadata cache.
+     */
+    private final BlobsCache cache;
+
+    /**
+     * Registry-wide digest index updated on put and mount, if present.
+     */
+    private final Optional<DigestIndex> index;
+
     /**
      * Ctor.
      * @param asto Storage
@@ -41,33 +62,226 @@ public final class AstoBlobs implements BlobStore {
      * @param name Repository name.
      */
     public AstoBlobs(final Storage asto, final BlobsLayout layout, final RepoName name) {
+        this(asto, layout, name, new BlobsCache());
+    }
+
+    /**
+     * Ctor.
+     * @param asto Storage
+     * @param layout Blobs layout.
+     * @param name Repository name.
+     * @param cache Blobs metadata cache.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AstoBlobs(
+        final Storage asto, final BlobsLayout layout, final RepoName name, final BlobsCache cache
+    ) {
+        this(asto, layout, name, cache, Optional.empty());
+    }
+
+    /**
+     * Ctor.
+     * @param asto Storage
+     * @param layout Blobs layout.
+     * @param name Repository name.
+     * @param cache Blobs metadata cache.
+     * @param index Registry-wide digest index.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    AstoBlobs(
+        final Storage asto, final BlobsLayout layout, final RepoName name, final BlobsCache cache,
+        final Optional<DigestIndex> index
+    ) {
         this.asto = asto;
         this.layout = layout;
         this.name = name;
+        this.cache = cache;
+        this.index = index;
     }
 
     @Override
     public CompletionStage<Optional<Blob>> blob(final Digest digest) {
         final Key key = this.layout.blob(this.name, digest);
-        return this.asto.exists(key).thenApply(
-            exists -> {
-                final Optional<Blob> blob;
-                if (exists) {
-                    blob = Optional.of(new AstoBlob(this.asto, key, digest));
-                } else {
-                    blob = Optional.empty();
+        final CompletionStage<Optional<Blob>> res;
+        if (this.cache.contains(key)) {
+            res = CompletableFuture.completedFuture(
+                Optional.of(new AstoBlob(this.asto, key, digest, this.cache))
+            );
+        } else {
+            res = this.asto.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Optional<Blob>> blob;
+                    if (exists) {
+                        this.cache.exists(key);
+                        blob = CompletableFuture.completedFuture(
+                            Optional.of(new AstoBlob(this.asto, key, digest, this.cache))
+                        );
+                    } else {
+                        blob = this.legacy(digest);
+                    }
+                    return blob;
                 }
-                return blob;
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Mount blob by saving layer link to it's data if blob is stored in the same storage
+     * by other key, blob stored in other storage or not by asto is copied.
+     *
+     * @param blob Blob.
+     * @return Mounted blob.
+     */
+    @Override
+    public CompletionStage<Blob> mount(final Blob blob) {
+        final Digest digest = blob.digest();
+        final CompletionStage<Blob> result;
+        if (blob instanceof AstoBlob && ((AstoBlob) blob).storage() == this.asto) {
+            final Key data = ((AstoBlob) blob).key();
+            final CompletionStage<Void> linked;
+            if (data.string().equals(this.layout.blob(this.name, digest).string())) {
+                linked = CompletableFuture.allOf();
+            } else {
+                linked = this.asto.save(
+                    this.layout.link(this.name, digest),
+                    new Content.From(data.string().getBytes(StandardCharsets.UTF_8))
+                );
             }
-        );
+            result = linked
+                .thenCompose(nothing -> this.indexed(digest))
+                .thenApply(nothing -> new AstoBlob(this.asto, data, digest, this.cache));
+        } else {
+            result = BlobStore.super.mount(blob);
+        }
+        return result;
     }
 
     @Override
     public CompletionStage<Blob> put(final BlobSource source) {
         final Digest digest = source.digest();
         final Key key = this.layout.blob(this.name, digest);
-        return source.saveTo(this.asto, key).thenApply(
-            nothing -> new AstoBlob(this.asto, key, digest)
-        );
+        return source.saveTo(this.asto, key)
+            .thenRun(() -> this.cache.exists(key))
+            .thenCompose(nothing -> this.indexed(digest))
+            .thenApply(nothing -> new AstoBlob(this.asto, key, digest, this.cache));
+    }
+
+    /**
+     * Add repository to digest index if index is present.
+     * Repository is added only after blob is found in it, so index never
+     * points to repository which blob data or link did not reach this storage.
+     *
+     * @param digest Blob digest.
+     * @return Completion of index update.
+     */
+    private CompletionStage<Void> indexed(final Digest digest) {
+        return this.index.<CompletionStage<Void>>map(
+            idx -> this.blob(digest).thenCompose(
+                found -> {
+                    final CompletionStage<Void> res;
+                    if (found.isPresent()) {
+                        res = idx.add(this.name, digest);
+                    } else {
+                        res = CompletableFuture.allOf();
+                    }
+                    return res;
+                }
+            )
+        ).orElseGet(() -> CompletableFuture.allOf());
+    }
+
+    /**
+     * Find blob stored by previous layout, then by layer link.
+     *
+     * @param digest Blob digest.
+     * @return Blob if found.
+     */
+    private CompletionStage<Optional<Blob>> legacy(final Digest digest) {
+        return this.layout.legacy(this.name, digest).<CompletionStage<Optional<Blob>>>map(
+            key -> this.asto.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Optional<Blob>> blob;
+                    if (exists) {
+                        blob = CompletableFuture.completedFuture(
+                            Optional.of(new AstoBlob(this.asto, key, digest, this.cache))
+                        );
+                    } else {
+                        blob = this.linked(digest);
+                    }
+                    return blob;
+                }
+            )
+        ).orElseGet(() -> this.linked(digest));
+    }
+
+    /**
+     * Find blob by layer link.
+     * Layout storing blobs by the same key for all repositories never links them,
+     * since mounted blob data is already stored by repository blob key,
+     * so link is not read for such layout.
+     * Link to absent blob data is treated as absent blob.
+     *
+     * @param digest Blob digest.
+     * @return Blob if layer link exists and blob data it points to exists.
+     */
+    private CompletionStage<Optional<Blob>> linked(final Digest digest) {
+        final CompletionStage<Optional<Blob>> res;
+        if (this.layout.blob(this.name, digest).string()
+            .equals(this.layout.blob(AstoBlobs.ANY, digest).string())) {
+            res = CompletableFuture.completedFuture(Optional.empty());
+        } else {
+            res = this.asto.value(this.layout.link(this.name, digest))
+                .thenCompose(content -> new PublisherAs(content).string(StandardCharsets.UTF_8))
+                .handle(
+                    (data, err) -> {
+                        final Optional<Key> target;
+                        if (err == null) {
+                            target = Optional.of(new Key.From(data));
+                        } else if (new NotFound(err).test()) {
+                            target = Optional.empty();
+                        } else {
+                            throw new CompletionException(err);
+                        }
+                        return target;
+                    }
+                ).thenCompose(
+                    target -> target.map(this::existing)
+                        .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+                        .thenApply(
+                            found -> found.map(
+                                key -> new AstoBlob(this.asto, key, digest, this.cache)
+                            )
+                        )
+                );
+        }
+        return res;
+    }
+
+    /**
+     * Check that blob data exists.
+     *
+     * @param key Blob data key.
+     * @return Key if blob data exists.
+     */
+    private CompletionStage<Optional<Key>> existing(final Key key) {
+        final CompletionStage<Optional<Key>> res;
+        if (this.cache.contains(key)) {
+            res = CompletableFuture.completedFuture(Optional.of(key));
+        } else {
+            res = this.asto.exists(key).thenApply(
+                exists -> {
+                    final Optional<Key> found;
+                    if (exists) {
+                        this.cache.exists(key);
+                        found = Optional.of(key);
+                    } else {
+                        found = Optional.empty();
+                    }
+                    return found;
+                }
+            );
+        }
+        return res;
     }
 }
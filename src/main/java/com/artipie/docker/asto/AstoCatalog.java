@@ -14,21 +14,16 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
- * Asto implementation of {@link Catalog}. Catalog created from list of keys.
+ * Asto implementation of {@link Catalog}. Catalog created from list of keys or ordered names.
  *
  * @since 0.9
  */
 final class AstoCatalog implements Catalog {
 
     /**
-     * Repositories root key.
+     * Repository names in lexicographical order.
      */
-    private final Key root;
-
-    /**
-     * List of keys inside repositories root.
-     */
-    private final Collection<Key> keys;
+    private final Collection<String> names;
 
     /**
      * From which name to start, exclusive.
@@ -55,8 +50,22 @@ final class AstoCatalog implements Catalog {
         final Optional<RepoName> from,
         final int limit
     ) {
-        this.root = root;
-        this.keys = keys;
+        this(new Children(root, keys).names(), from, limit);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param names Repository names in lexicographical order.
+     * @param from From which name to start, exclusive.
+     * @param limit Maximum number of names returned.
+     */
+    AstoCatalog(
+        final Collection<String> names,
+        final Optional<RepoName> from,
+        final int limit
+    ) {
+        this.names = names;
         this.from = from;
         this.limit = limit;
     }
@@ -67,12 +76,12 @@ final class AstoCatalog implements Catalog {
     }
 
     /**
-     * Convert keys to ordered set of repository names.
+     * Convert names to ordered repository names.
      *
      * @return Ordered repository names.
      */
     private Collection<RepoName> repos() {
-        return new Children(this.root, this.keys).names().stream()
+        return this.names.stream()
             .map(RepoName.Simple::new)
             .collect(Collectors.toList());
     }
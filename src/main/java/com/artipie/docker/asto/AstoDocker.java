@@ -5,12 +5,14 @@
 
 package com.artipie.docker.asto;
 
-import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.docker.Catalog;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
+import com.artipie.docker.misc.HashingPool;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
@@ -30,6 +32,11 @@ public final class AstoDocker implements Docker {
      */
     private final Layout layout;
 
+    /**
+     * Settings shared by repositories.
+     */
+    private final AstoSettings settings;
+
     /**
      * Ctor.
      * @param asto Asto storage
@@ -45,18 +52,96 @@ public final class AstoDocker implements Docker {
      * @param layout Storage layout.
      */
     public AstoDocker(final Storage asto, final Layout layout) {
+        this(asto, layout, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param layout Storage layout.
+     * @param pool Hashing pool for uploaded data.
+     */
+    public AstoDocker(final Storage asto, final Layout layout, final HashingPool pool) {
+        this(asto, layout, pool, new BlobsCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param layout Storage layout.
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AstoDocker(
+        final Storage asto, final Layout layout, final HashingPool pool, final BlobsCache cache
+    ) {
+        this(asto, layout, pool, cache, new LinksCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param layout Storage layout.
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoDocker(
+        final Storage asto, final Layout layout, final HashingPool pool, final BlobsCache cache,
+        final LinksCache links
+    ) {
+        this(asto, layout, pool, cache, links, AstoManifests.MAX_SIZE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param layout Storage layout.
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     * @param limit Maximum manifest size in bytes.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoDocker(
+        final Storage asto, final Layout layout, final HashingPool pool, final BlobsCache cache,
+        final LinksCache links, final int limit
+    ) {
+        this(asto, layout, new AstoSettings(pool, cache, links, limit));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param layout Storage layout.
+     * @param settings Settings shared by repositories.
+     */
+    public AstoDocker(final Storage asto, final Layout layout, final AstoSettings settings) {
         this.asto = asto;
         this.layout = layout;
+        this.settings = settings;
     }
 
     @Override
     public Repo repo(final RepoName name) {
-        return new AstoRepo(this.asto, this.layout, name);
+        return new AstoRepo(this.asto, this.layout, name, this.settings);
+    }
+
+    @Override
+    public CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        return new DigestIndex(this.asto, this.layout).repositories(digest);
     }
 
     @Override
     public CompletionStage<Catalog> catalog(final Optional<RepoName> from, final int limit) {
-        final Key root = this.layout.repositories();
-        return this.asto.list(root).thenApply(keys -> new AstoCatalog(root, keys, from, limit));
+        return new CatalogIndex(this.asto, this.layout).page(from, limit)
+            .thenApply(names -> new AstoCatalog(names, from, limit));
     }
 }
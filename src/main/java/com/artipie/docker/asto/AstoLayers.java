@@ -39,9 +39,7 @@ public final class AstoLayers implements Layers {
 
     @Override
     public CompletionStage<Blob> mount(final Blob blob) {
-        return blob.content().thenCompose(
-            content -> this.blobs.put(new TrustedBlobSource(content, blob.digest()))
-        );
+        return this.blobs.mount(blob);
     }
 
     @Override
@@ -8,6 +8,7 @@ import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.ext.PublisherAs;
+import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
 import com.artipie.docker.Manifests;
 import com.artipie.docker.RepoName;
@@ -17,11 +18,21 @@ import com.artipie.docker.error.InvalidManifestException;
 import com.artipie.docker.manifest.JsonManifest;
 import com.artipie.docker.manifest.Layer;
 import com.artipie.docker.manifest.Manifest;
+import com.artipie.docker.manifest.ManifestInfo;
+import com.artipie.docker.misc.HashingPool;
 import com.artipie.docker.ref.ManifestRef;
+import com.jcabi.log.Logger;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.json.JsonException;
 
@@ -32,6 +43,16 @@ import javax.json.JsonException;
  */
 public final class AstoManifests implements Manifests {
 
+    /**
+     * Default number of blobs checked concurrently on manifest validation.
+     */
+    static final int CONCURRENCY = 16;
+
+    /**
+     * Default maximum manifest size, 4 MiB.
+     */
+    static final int MAX_SIZE = 4 * 1024 * 1024;
+
     /**
      * Asto storage.
      */
@@ -52,6 +73,16 @@ public final class AstoManifests implements Manifests {
      */
     private final RepoName name;
 
+    /**
+     * Manifests settings: links cache, size limit and validation concurrency.
+     */
+    private final AstoSettings settings;
+
+    /**
+     * Catalog index to register repository in, empty if catalog is not indexed.
+     */
+    private final Optional<CatalogIndex> catalog;
+
     /**
      * Ctor.
      *
@@ -66,54 +97,179 @@ public final class AstoManifests implements Manifests {
         final BlobStore blobs,
         final ManifestsLayout layout,
         final RepoName name
+    ) {
+        this(asto, blobs, layout, name, AstoManifests.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param blobs Blobs storage.
+     * @param layout Manifests layout.
+     * @param name Repository name
+     * @param concurrency Maximum number of blobs checked concurrently on validation.
+     * @checkstyle ParameterNumberCheck (2 lines)
+     */
+    public AstoManifests(
+        final Storage asto,
+        final BlobStore blobs,
+        final ManifestsLayout layout,
+        final RepoName name,
+        final int concurrency
+    ) {
+        this(asto, blobs, layout, name, concurrency, new LinksCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param blobs Blobs storage.
+     * @param layout Manifests layout.
+     * @param name Repository name
+     * @param concurrency Maximum number of blobs checked concurrently on validation.
+     * @param links Manifest links cache.
+     * @checkstyle ParameterNumberCheck (2 lines)
+     */
+    public AstoManifests(
+        final Storage asto,
+        final BlobStore blobs,
+        final ManifestsLayout layout,
+        final RepoName name,
+        final int concurrency,
+        final LinksCache links
+    ) {
+        this(asto, blobs, layout, name, concurrency, links, AstoManifests.MAX_SIZE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param blobs Blobs storage.
+     * @param layout Manifests layout.
+     * @param name Repository name
+     * @param concurrency Maximum number of blobs checked concurrently on validation.
+     * @param links Manifest links cache.
+     * @param limit Maximum manifest size in bytes.
+     * @checkstyle ParameterNumberCheck (2 lines)
+     */
+    public AstoManifests(
+        final Storage asto,
+        final BlobStore blobs,
+        final ManifestsLayout layout,
+        final RepoName name,
+        final int concurrency,
+        final LinksCache links,
+        final int limit
+    ) {
+        this(
+            asto, blobs, layout, name,
+            new AstoSettings(new HashingPool(), new BlobsCache(), links, limit, concurrency)
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param blobs Blobs storage.
+     * @param layout Manifests layout.
+     * @param name Repository name
+     * @param settings Manifests settings: links cache, size limit and validation concurrency.
+     * @checkstyle ParameterNumberCheck (2 lines)
+     */
+    public AstoManifests(
+        final Storage asto,
+        final BlobStore blobs,
+        final ManifestsLayout layout,
+        final RepoName name,
+        final AstoSettings settings
+    ) {
+        this(asto, blobs, layout, name, settings, Optional.empty());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param blobs Blobs storage.
+     * @param layout Manifests layout.
+     * @param name Repository name
+     * @param settings Manifests settings: links cache, size limit and validation concurrency.
+     * @param catalog Catalog index to register repository in.
+     * @checkstyle ParameterNumberCheck (2 lines)
+     */
+    AstoManifests(
+        final Storage asto,
+        final BlobStore blobs,
+        final ManifestsLayout layout,
+        final RepoName name,
+        final AstoSettings settings,
+        final Optional<CatalogIndex> catalog
     ) {
         this.asto = asto;
         this.blobs = blobs;
         this.layout = layout;
         this.name = name;
+        this.settings = settings;
+        this.catalog = catalog;
     }
 
     @Override
     public CompletionStage<Manifest> put(final ManifestRef ref, final Content content) {
-        return new PublisherAs(content).bytes().thenCompose(
-            bytes -> this.blobs.put(new TrustedBlobSource(bytes))
-                .thenApply(blob -> new JsonManifest(blob.digest(), bytes))
+        return new ManifestBytes(content, this.settings.limit()).manifest().thenCompose(
+            manifest -> this.validate(manifest)
                 .thenCompose(
-                    manifest -> this.validate(manifest)
-                        .thenCompose(nothing -> this.addManifestLinks(ref, manifest.digest()))
-                        .thenApply(nothing -> manifest)
+                    nothing -> this.blobs.put(
+                        new TrustedBlobSource(manifest.content(), manifest.digest())
+                    )
                 )
+                .thenCompose(blob -> this.addInfo(new ManifestInfo(manifest)))
+                .thenCompose(nothing -> this.addManifestLinks(ref, manifest.digest()))
+                .thenCompose(nothing -> this.index(ref))
+                .thenApply(nothing -> manifest)
         );
     }
 
     @Override
     public CompletionStage<Optional<Manifest>> get(final ManifestRef ref) {
         return this.readLink(ref).thenCompose(
-            digestOpt -> digestOpt.map(
-                digest -> this.blobs.blob(digest)
-                    .thenCompose(
-                        blobOpt -> blobOpt
-                            .map(
-                                blob -> blob.content()
-                                    .thenApply(PublisherAs::new)
-                                    .thenCompose(PublisherAs::bytes)
-                                    .<Manifest>thenApply(
-                                        bytes -> new JsonManifest(blob.digest(), bytes)
-                                    )
-                                    .thenApply(Optional::of)
-                            )
-                            .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
-                    )
+            digestOpt -> digestOpt.map(this::manifest)
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+        );
+    }
+
+    @Override
+    public CompletionStage<Optional<ManifestInfo>> info(final ManifestRef ref) {
+        return this.readLink(ref).thenCompose(
+            digestOpt -> digestOpt.map(this::readInfo)
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+        );
+    }
+
+    @Override
+    public CompletionStage<Optional<Digest>> digest(final ManifestRef ref) {
+        return this.readLink(ref).thenCompose(
+            digest -> digest.map(
+                dgst -> this.blobs.blob(dgst).thenApply(blob -> blob.map(Blob::digest))
             ).orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
         );
     }
 
     @Override
     public CompletionStage<Tags> tags(final Optional<Tag> from, final int limit) {
-        final Key root = this.layout.tags(this.name);
-        return this.asto.list(root).thenApply(
-            keys -> new AstoTags(this.name, root, keys, from, limit)
-        );
+        final NamesIndex index = this.index();
+        final Optional<String> last = from.map(Tag::value);
+        return index.page(last, limit).thenCompose(
+            page -> page.<CompletionStage<List<String>>>map(CompletableFuture::completedFuture)
+                .orElseGet(
+                    () -> index.build()
+                        .thenCompose(nothing -> index.page(last, limit))
+                        .thenApply(Optional::get)
+                )
+        ).thenApply(names -> new AstoTags(this.name, names, from, limit));
     }
 
     /**
@@ -137,32 +293,146 @@ public final class AstoManifests implements Manifests {
                 ex
             );
         }
-        return CompletableFuture.allOf(
-            Stream.concat(
-                digests.map(
-                    digest -> this.blobs.blob(digest).thenCompose(
-                        opt -> {
-                            if (!opt.isPresent()) {
-                                throw new InvalidManifestException(
-                                    String.format("Blob does not exist: %s", digest)
-                                );
-                            }
-                            return CompletableFuture.allOf();
-                        }
-                    ).toCompletableFuture()
-                ),
-                Stream.of(
-                    CompletableFuture.runAsync(
-                        () -> {
-                            if (manifest.mediaTypes().isEmpty()) {
-                                throw new InvalidManifestException(
-                                    "Required field `mediaType` is empty"
-                                );
-                            }
-                        }
-                    )
+        if (manifest.mediaTypes().isEmpty()) {
+            throw new InvalidManifestException("Required field `mediaType` is empty");
+        }
+        return Flowable.fromIterable(digests::iterator)
+            .flatMapMaybe(
+                digest -> SingleInterop.fromFuture(this.blobs.blob(digest))
+                    .filter(blob -> !blob.isPresent())
+                    .map(absent -> digest),
+                false,
+                this.settings.concurrency()
+            )
+            .firstElement()
+            .map(
+                digest -> {
+                    throw new InvalidManifestException(
+                        String.format("Blob does not exist: %s", digest)
+                    );
+                }
+            )
+            .ignoreElement()
+            .to(CompletableInterop.await());
+    }
+
+    /**
+     * Reads manifest from blob by digest.
+     *
+     * @param digest Manifest digest.
+     * @return Manifest, empty if blob is absent.
+     */
+    private CompletionStage<Optional<Manifest>> manifest(final Digest digest) {
+        return this.blobs.blob(digest).thenCompose(
+            blobOpt -> blobOpt
+                .map(
+                    blob -> blob.content()
+                        .thenApply(PublisherAs::new)
+                        .thenCompose(PublisherAs::bytes)
+                        .<Manifest>thenApply(bytes -> new JsonManifest(blob.digest(), bytes))
+                        .thenApply(Optional::of)
+                )
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+        );
+    }
+
+    /**
+     * Reads manifest metadata by digest.
+     * Manifests stored before metadata was introduced have no metadata,
+     * it is read from manifest content and stored for next requests.
+     *
+     * @param digest Manifest digest.
+     * @return Manifest metadata, empty if manifest is absent.
+     */
+    private CompletionStage<Optional<ManifestInfo>> readInfo(final Digest digest) {
+        final Key key = this.layout.info(this.name, digest);
+        return this.read(key).thenCompose(
+            bytes -> bytes.<CompletionStage<Optional<ManifestInfo>>>map(
+                stored -> CompletableFuture.completedFuture(
+                    Optional.of(new InfoSidecar(digest, stored).info())
                 )
-            ).toArray(CompletableFuture[]::new)
+            ).orElseGet(
+                () -> this.manifest(digest).thenCompose(
+                    manifest -> manifest.map(ManifestInfo::new).map(
+                        info -> this.addInfo(info).thenApply(nothing -> Optional.of(info))
+                    ).orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+                )
+            )
+        );
+    }
+
+    /**
+     * Stores manifest metadata.
+     *
+     * @param info Manifest metadata.
+     * @return Signal that metadata is stored.
+     */
+    private CompletableFuture<Void> addInfo(final ManifestInfo info) {
+        return this.asto.save(
+            this.layout.info(this.name, info.digest()), new InfoSidecar(info).content()
+        );
+    }
+
+    /**
+     * Adds manifest tag to sorted tags index, if manifest is referenced by tag,
+     * and repository to catalog index. Manifest is already published by links,
+     * so index which failed to update is dropped instead of failing the push:
+     * it is built again from links on next listing and never misses names.
+     *
+     * @param ref Manifest reference.
+     * @return Signal that indexes are updated.
+     */
+    private CompletionStage<Void> index(final ManifestRef ref) {
+        final CompletionStage<Void> tag;
+        if (new Digest.FromString(ref.string()).valid()) {
+            tag = CompletableFuture.completedFuture(null);
+        } else {
+            final NamesIndex tags = this.index();
+            tag = this.updated(tags.add(ref.string()), tags::invalidate, ref);
+        }
+        return tag.thenCompose(
+            nothing -> this.catalog.map(
+                index -> this.updated(index.add(this.name), index::invalidate, ref)
+            ).orElseGet(() -> CompletableFuture.completedFuture(null))
+        );
+    }
+
+    /**
+     * Index update, dropping the index if update failed.
+     *
+     * @param update Index update.
+     * @param invalidate Index drop.
+     * @param ref Manifest reference.
+     * @return Completion of update or drop.
+     */
+    private CompletionStage<Void> updated(final CompletionStage<Void> update,
+        final Supplier<CompletionStage<Void>> invalidate, final ManifestRef ref) {
+        return update.handle(
+            (nothing, err) -> {
+                final CompletionStage<Void> res;
+                if (err == null) {
+                    res = CompletableFuture.completedFuture(null);
+                } else {
+                    Logger.warn(
+                        this, "Failed to index manifest %s of %s, index is dropped: %[exception]s",
+                        ref.string(), this.name.value(), err
+                    );
+                    res = invalidate.get();
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
+    }
+
+    /**
+     * Sorted tags index of repository.
+     *
+     * @return Tags index.
+     */
+    private NamesIndex index() {
+        return new NamesIndex(
+            this.asto, this.layout.tagsIndex(this.name),
+            () -> new DirectChildren(this.asto, this.layout.tags(this.name)).names()
         );
     }
 
@@ -188,10 +458,11 @@ public final class AstoManifests implements Manifests {
      * @return Link key.
      */
     private CompletableFuture<Void> addLink(final ManifestRef ref, final Digest digest) {
+        final Key key = this.layout.manifest(this.name, ref);
         return this.asto.save(
-            this.layout.manifest(this.name, ref),
+            key,
             new Content.From(digest.string().getBytes(StandardCharsets.US_ASCII))
-        ).toCompletableFuture();
+        ).thenRun(() -> this.settings.links().put(key, ref, digest));
     }
 
     /**
@@ -202,21 +473,47 @@ public final class AstoManifests implements Manifests {
      */
     private CompletableFuture<Optional<Digest>> readLink(final ManifestRef ref) {
         final Key key = this.layout.manifest(this.name, ref);
-        return this.asto.exists(key).thenCompose(
-            exists -> {
-                final CompletionStage<Optional<Digest>> stage;
-                if (exists) {
-                    stage = this.asto.value(key)
-                        .thenCompose(
-                            pub -> new PublisherAs(pub).asciiString()
-                        )
-                        .<Digest>thenApply(Digest.FromString::new)
-                        .thenApply(Optional::of);
-                } else {
-                    stage = CompletableFuture.completedFuture(Optional.empty());
+        final Optional<Digest> cached = this.settings.links().get(key);
+        final CompletableFuture<Optional<Digest>> res;
+        if (cached.isPresent()) {
+            res = CompletableFuture.completedFuture(cached);
+        } else {
+            res = this.read(key).thenApply(
+                bytes -> bytes.<Digest>map(
+                    stored -> {
+                        final Digest digest = new Digest.FromString(
+                            new String(stored, StandardCharsets.US_ASCII)
+                        );
+                        this.settings.links().put(key, ref, digest);
+                        return digest;
+                    }
+                )
+            ).toCompletableFuture();
+        }
+        return res;
+    }
+
+    /**
+     * Read value in single storage operation.
+     *
+     * @param key Key.
+     * @return Value bytes, empty if value is absent.
+     */
+    private CompletionStage<Optional<byte[]>> read(final Key key) {
+        return this.asto.value(key)
+            .thenCompose(pub -> new PublisherAs(pub).bytes())
+            .handle(
+                (bytes, err) -> {
+                    final Optional<byte[]> res;
+                    if (err == null) {
+                        res = Optional.of(bytes);
+                    } else if (new NotFound(err).test()) {
+                        res = Optional.empty();
+                    } else {
+                        throw new CompletionException(err);
+                    }
+                    return res;
                 }
-                return stage;
-            }
-        );
+            );
     }
 }
@@ -11,6 +11,8 @@ import com.artipie.docker.Manifests;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Uploads;
+import com.artipie.docker.misc.HashingPool;
+import java.util.Optional;
 
 /**
  * Asto implementation of {@link Repo}.
@@ -35,6 +37,11 @@ public final class AstoRepo implements Repo {
      */
     private final Layout layout;
 
+    /**
+     * Repository settings.
+     */
+    private final AstoSettings settings;
+
     /**
      * Ctor.
      *
@@ -43,9 +50,94 @@ public final class AstoRepo implements Repo {
      * @param name Repository name
      */
     public AstoRepo(final Storage asto, final Layout layout, final RepoName name) {
+        this(asto, layout, name, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param layout Storage layout.
+     * @param name Repository name
+     * @param pool Hashing pool for uploaded data.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AstoRepo(
+        final Storage asto, final Layout layout, final RepoName name, final HashingPool pool
+    ) {
+        this(asto, layout, name, pool, new BlobsCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param layout Storage layout.
+     * @param name Repository name
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoRepo(
+        final Storage asto, final Layout layout, final RepoName name, final HashingPool pool,
+        final BlobsCache cache
+    ) {
+        this(asto, layout, name, pool, cache, new LinksCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param layout Storage layout.
+     * @param name Repository name
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoRepo(
+        final Storage asto, final Layout layout, final RepoName name, final HashingPool pool,
+        final BlobsCache cache, final LinksCache links
+    ) {
+        this(asto, layout, name, pool, cache, links, AstoManifests.MAX_SIZE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param layout Storage layout.
+     * @param name Repository name
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     * @param limit Maximum manifest size in bytes.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoRepo(
+        final Storage asto, final Layout layout, final RepoName name, final HashingPool pool,
+        final BlobsCache cache, final LinksCache links, final int limit
+    ) {
+        this(asto, layout, name, new AstoSettings(pool, cache, links, limit));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param layout Storage layout.
+     * @param name Repository name
+     * @param settings Repository settings.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AstoRepo(
+        final Storage asto, final Layout layout, final RepoName name, final AstoSettings settings
+    ) {
         this.asto = asto;
         this.layout = layout;
         this.name = name;
+        this.settings = settings;
     }
 
     @Override
@@ -55,12 +147,15 @@ public final class AstoRepo implements Repo {
 
     @Override
     public Manifests manifests() {
-        return new AstoManifests(this.asto, this.blobs(), this.layout, this.name);
+        return new AstoManifests(
+            this.asto, this.blobs(), this.layout, this.name, this.settings,
+            Optional.of(new CatalogIndex(this.asto, this.layout))
+        );
     }
 
     @Override
     public Uploads uploads() {
-        return new AstoUploads(this.asto, this.layout, this.name);
+        return new AstoUploads(this.asto, this.layout, this.name, this.settings.pool());
     }
 
     /**
@@ -69,6 +164,9 @@ public final class AstoRepo implements Repo {
      * @return Blobs storage.
      */
     private AstoBlobs blobs() {
-        return new AstoBlobs(this.asto, this.layout, this.name);
+        return new AstoBlobs(
+            this.asto, this.layout, this.name, this.settings.cache(),
+            Optional.of(new DigestIndex(this.asto, this.layout))
+        );
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.docker.misc.HashingPool;
+
+/**
+ * Tuning settings of asto registry shared by all it's repositories:
+ * hashing pool, caches and manifest limits.
+ *
+ * @since 0.18
+ */
+public final class AstoSettings {
+
+    /**
+     * Hashing pool for uploaded data.
+     */
+    private final HashingPool pool;
+
+    /**
+     * Blobs metadata cache.
+     */
+    private final BlobsCache cache;
+
+    /**
+     * Manifest links cache.
+     */
+    private final LinksCache links;
+
+    /**
+     * Maximum manifest size in bytes.
+     */
+    private final int limit;
+
+    /**
+     * Maximum number of blobs checked concurrently on manifest validation.
+     */
+    private final int concurrency;
+
+    /**
+     * Ctor with default settings.
+     */
+    public AstoSettings() {
+        this(new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param pool Hashing pool for uploaded data.
+     */
+    public AstoSettings(final HashingPool pool) {
+        this(pool, new BlobsCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     */
+    public AstoSettings(final HashingPool pool, final BlobsCache cache) {
+        this(pool, cache, new LinksCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     */
+    public AstoSettings(final HashingPool pool, final BlobsCache cache, final LinksCache links) {
+        this(pool, cache, links, AstoManifests.MAX_SIZE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     * @param limit Maximum manifest size in bytes.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoSettings(
+        final HashingPool pool, final BlobsCache cache, final LinksCache links, final int limit
+    ) {
+        this(pool, cache, links, limit, AstoManifests.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param pool Hashing pool for uploaded data.
+     * @param cache Blobs metadata cache.
+     * @param links Manifest links cache.
+     * @param limit Maximum manifest size in bytes.
+     * @param concurrency Maximum number of blobs checked concurrently on manifest validation.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public AstoSettings(
+        final HashingPool pool, final BlobsCache cache, final LinksCache links, final int limit,
+        final int concurrency
+    ) {
+        this.pool = pool;
+        this.cache = cache;
+        this.links = links;
+        this.limit = limit;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Hashing pool for uploaded data.
+     *
+     * @return Hashing pool.
+     */
+    public HashingPool pool() {
+        return this.pool;
+    }
+
+    /**
+     * Blobs metadata cache.
+     *
+     * @return Blobs cache.
+     */
+    public BlobsCache cache() {
+        return this.cache;
+    }
+
+    /**
+     * Manifest links cache.
+     *
+     * @return Links cache.
+     */
+    public LinksCache links() {
+        return this.links;
+    }
+
+    /**
+     * Maximum manifest size in bytes.
+     *
+     * @return Size limit.
+     */
+    public int limit() {
+        return this.limit;
+    }
+
+    /**
+     * Maximum number of blobs checked concurrently on manifest validation.
+     *
+     * @return Concurrency.
+     */
+    public int concurrency() {
+        return this.concurrency;
+    }
+}
@@ -16,7 +16,7 @@ import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 
 /**
- * Asto implementation of {@link Tags}. Tags created from list of keys.
+ * Asto implementation of {@link Tags}. Tags created from list of keys or ordered tag names.
  *
  * @since 0.8
  */
@@ -28,14 +28,9 @@ final class AstoTags implements Tags {
     private final RepoName name;
 
     /**
-     * Tags root key.
+     * Tag names in lexicographical order.
      */
-    private final Key root;
-
-    /**
-     * List of keys inside tags root.
-     */
-    private final Collection<Key> keys;
+    private final Collection<String> names;
 
     /**
      * From which tag to start, exclusive.
@@ -63,10 +58,26 @@ final class AstoTags implements Tags {
         final Collection<Key> keys,
         final Optional<Tag> from,
         final int limit
+    ) {
+        this(name, new Children(root, keys).names(), from, limit);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param name Repository name.
+     * @param names Tag names in lexicographical order.
+     * @param from From which tag to start, exclusive.
+     * @param limit Maximum number of tags returned.
+     */
+    AstoTags(
+        final RepoName name,
+        final Collection<String> names,
+        final Optional<Tag> from,
+        final int limit
     ) {
         this.name = name;
-        this.root = root;
-        this.keys = keys;
+        this.names = names;
         this.from = from;
         this.limit = limit;
     }
@@ -90,12 +101,12 @@ final class AstoTags implements Tags {
     }
 
     /**
-     * Convert keys to ordered set of tags.
+     * Convert names to ordered tags.
      *
      * @return Ordered tags.
      */
     private Collection<Tag> tags() {
-        return new Children(this.root, this.keys).names().stream()
+        return this.names.stream()
             .map(Tag.Valid::new)
             .collect(Collectors.toList());
     }
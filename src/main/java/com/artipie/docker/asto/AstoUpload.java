@@ -7,25 +7,57 @@ package com.artipie.docker.asto;
 import com.artipie.asto.Content;
 import com.artipie.asto.FailedCompletionStage;
 import com.artipie.asto.Key;
-import com.artipie.asto.MetaCommon;
+import com.artipie.asto.Meta;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
 import com.artipie.docker.Layers;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Upload;
 import com.artipie.docker.error.InvalidDigestException;
-import com.artipie.docker.misc.DigestedFlowable;
-import java.nio.charset.StandardCharsets;
+import com.artipie.docker.error.InvalidRangeException;
+import com.artipie.docker.misc.HashingPool;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.UUID;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import org.apache.commons.codec.binary.Hex;
 
 /**
  * Asto implementation of {@link Upload}.
+ * <p>
+ * Upload session state is kept in single small record, see {@link UploadState},
+ * so every step costs fixed amount of storage operations:
+ * <ul>
+ *     <li>start: 1 write of state record</li>
+ *     <li>loading existing session: 1 read of state record; sessions started
+ *     before state record was introduced are converted once on load</li>
+ *     <li>append: 1 write of chunk and 1 write of state record</li>
+ *     <li>out-of-order append: 1 write of part named by its bytes range,
+ *     state is not updated, so parts could be uploaded concurrently</li>
+ *     <li>offset: no operations when state is loaded</li>
+ *     <li>putTo: blob saving (existence check and move for single chunk upload,
+ *     multiple chunks are copied into blob since storage could not concatenate
+ *     values), then deletion of chunks and state record; if digest of in-order chunks
+ *     does not match, parts are listed and assembled with chunks into blob
+ *     with digest verification</li>
+ *     <li>cancel: listing and deletion of upload keys</li>
+ * </ul>
  *
  * @since 0.2
  */
@@ -53,6 +85,16 @@ public final class AstoUpload implements Upload {
     @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
     private final String uuid;
 
+    /**
+     * Hashing pool.
+     */
+    private final HashingPool pool;
+
+    /**
+     * Upload state, loaded from storage on first access if absent.
+     */
+    private final AtomicReference<UploadState> cached;
+
     /**
      * Ctor.
      *
@@ -67,11 +109,33 @@ public final class AstoUpload implements Upload {
         final UploadsLayout layout,
         final RepoName name,
         final String uuid
+    ) {
+        this(storage, layout, name, uuid, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Uploads layout.
+     * @param name Repository name.
+     * @param uuid Upload UUID.
+     * @param pool Hashing pool.
+     * @checkstyle ParameterNumberCheck (2 lines)
+     */
+    public AstoUpload(
+        final Storage storage,
+        final UploadsLayout layout,
+        final RepoName name,
+        final String uuid,
+        final HashingPool pool
     ) {
         this.storage = storage;
         this.layout = layout;
         this.name = name;
         this.uuid = uuid;
+        this.pool = pool;
+        this.cached = new AtomicReference<>();
     }
 
     @Override
@@ -81,85 +145,59 @@ public final class AstoUpload implements Upload {
 
     @Override
     public CompletableFuture<Void> start(final Instant time) {
-        return this.storage.save(
-            this.started(),
-            new Content.From(time.toString().getBytes(StandardCharsets.US_ASCII))
-        );
+        final UploadState state = new UploadState(time);
+        return this.storage.save(this.stateKey(), state.content())
+            .thenRun(() -> this.cached.set(state));
     }
 
     @Override
     public CompletionStage<Void> cancel() {
-        final Key key = this.started();
-        return this.storage
-            .exists(key)
-            .thenCompose(found -> this.storage.delete(key));
+        return this.storage.deleteAll(this.root());
     }
 
     @Override
     public CompletionStage<Long> append(final Content chunk) {
-        return this.chunks().thenCompose(
-            chunks -> {
-                if (!chunks.isEmpty()) {
-                    throw new UnsupportedOperationException("Multiple chunks are not supported");
-                }
-                final Key tmp = new Key.From(this.root(), UUID.randomUUID().toString());
-                final DigestedFlowable data = new DigestedFlowable(chunk);
-                return this.storage.save(tmp, new Content.From(chunk.size(), data)).thenCompose(
-                    nothing -> {
-                        final Key key = this.chunk(data.digest());
-                        return this.storage.move(tmp, key).thenApply(ignored -> key);
-                    }
-                ).thenCompose(
-                    key -> this.storage.metadata(key).thenApply(meta -> new MetaCommon(meta).size())
-                        .thenApply(updated -> updated - 1)
-                );
-            }
-        );
+        return this.state().thenCompose(state -> this.append(state, state.size(), chunk));
+    }
+
+    @Override
+    public CompletionStage<Long> append(final long position, final Content chunk) {
+        return this.state().thenCompose(state -> this.append(state, position, chunk));
     }
 
     @Override
     public CompletionStage<Long> offset() {
-        return this.chunks().thenCompose(
-            chunks -> {
-                final CompletionStage<Long> result;
-                if (chunks.isEmpty()) {
-                    result = CompletableFuture.completedFuture(0L);
-                } else {
-                    final Key key = chunks.iterator().next();
-                    result = this.storage.metadata(key)
-                        .thenApply(meta -> new MetaCommon(meta).size())
-                        .thenApply(size -> Math.max(size - 1, 0));
-                }
-                return result;
-            }
-        );
+        return this.state().thenApply(state -> AstoUpload.last(state.size()));
     }
 
     @Override
     public CompletionStage<Blob> putTo(final Layers layers, final Digest digest) {
-        final Key source = this.chunk(digest);
-        return this.storage.exists(source).thenCompose(
-            exists -> {
+        return this.state().thenCompose(
+            state -> {
                 final CompletionStage<Blob> result;
-                if (exists) {
-                    result = layers.put(
-                        new BlobSource() {
-                            @Override
-                            public Digest digest() {
-                                return digest;
-                            }
-
-                            @Override
-                            public CompletionStage<Void> saveTo(final Storage asto, final Key key) {
-                                return asto.move(source, key);
-                            }
-                        }
-                    ).thenCompose(
-                        blob -> this.delete().thenApply(nothing -> blob)
+                if (state.digest().map(Digest::hex).filter(digest.hex()::equals).isPresent()) {
+                    final List<Key> chunks = this.chunks(state);
+                    result = layers.put(this.source(chunks, state.size(), digest)).thenCompose(
+                        blob -> this.storage.deleteAll(this.root()).thenApply(nothing -> blob)
                     );
                 } else {
-                    result = new FailedCompletionStage<>(
-                        new InvalidDigestException(digest.toString())
+                    result = this.storage.list(this.partsRoot()).thenCompose(
+                        parts -> {
+                            final CompletionStage<Blob> assembled;
+                            if (parts.isEmpty() && state.digest().isPresent()) {
+                                assembled = new FailedCompletionStage<>(
+                                    new InvalidDigestException(
+                                        String.format(
+                                            "calculated: %s expected: %s",
+                                            state.digest().get().hex(), digest.hex()
+                                        )
+                                    )
+                                );
+                            } else {
+                                assembled = this.assemble(layers, state, parts, digest);
+                            }
+                            return assembled;
+                        }
                     );
                 }
                 return result;
@@ -177,49 +215,509 @@ public final class AstoUpload implements Upload {
     }
 
     /**
-     * Upload started marker key.
+     * Load upload state from storage.
+     *
+     * @return Upload with loaded state, empty if upload was not started.
+     */
+    CompletionStage<Optional<AstoUpload>> load() {
+        return this.state().handle(
+            (state, err) -> {
+                final Optional<AstoUpload> result;
+                if (err == null) {
+                    result = Optional.of(this);
+                } else if (new NotFound(err).test()) {
+                    result = Optional.empty();
+                } else {
+                    throw new CompletionException(err);
+                }
+                return result;
+            }
+        );
+    }
+
+    /**
+     * Upload state key.
      *
      * @return Key.
      */
-    private Key started() {
-        return new Key.From(this.root(), "started");
+    Key stateKey() {
+        return new Key.From(this.root(), "state");
     }
 
     /**
-     * Build upload chunk key for given digest.
+     * Appends a chunk of data at specified position.
      *
-     * @param digest Digest.
-     * @return Chunk key.
+     * @param state Upload state.
+     * @param position Position of the first chunk byte.
+     * @param chunk Chunk of data.
+     * @return Offset after appending chunk.
      */
-    private Key chunk(final Digest digest) {
-        return new Key.From(this.root(), String.format("%s_%s", digest.alg(), digest.hex()));
+    private CompletionStage<Long> append(
+        final UploadState state, final long position, final Content chunk
+    ) {
+        final CompletionStage<Long> result;
+        if (position == state.size()) {
+            final Key key = this.chunk(position);
+            final boolean first = state.chunks().isEmpty();
+            final MessageDigest sha = Digests.SHA256.get();
+            final AtomicLong received = new AtomicLong();
+            final Flowable<ByteBuffer> counted = Flowable.fromPublisher(chunk)
+                .doOnNext(buf -> received.addAndGet(buf.remaining()));
+            final Flowable<ByteBuffer> data;
+            if (first) {
+                data = this.pool.hash(counted, buf -> sha.update(buf.duplicate()));
+            } else {
+                data = counted;
+            }
+            result = this.storage.save(key, new Content.From(chunk.size(), data)).thenCompose(
+                nothing -> {
+                    final CompletionStage<UploadState> updated;
+                    if (chunk.size().isPresent() && chunk.size().get() != received.get()) {
+                        updated = this.storage.delete(key).thenCompose(
+                            deleted -> new FailedCompletionStage<>(
+                                new InvalidRangeException(
+                                    String.format(
+                                        "expected %d bytes of chunk at %d, but received %d",
+                                        chunk.size().get(), position, received.get()
+                                    )
+                                )
+                            )
+                        );
+                    } else if (received.get() == 0) {
+                        updated = this.storage.delete(key).thenApply(deleted -> state);
+                    } else {
+                        final Optional<Digest> digest;
+                        if (first) {
+                            digest = Optional.of(
+                                new Digest.Sha256(Hex.encodeHexString(sha.digest()))
+                            );
+                        } else {
+                            digest = Optional.empty();
+                        }
+                        final UploadState next = state.append(
+                            position, position + received.get(), digest
+                        );
+                        updated = this.storage.save(this.stateKey(), next.content())
+                            .thenApply(saved -> next);
+                    }
+                    return updated;
+                }
+            ).thenApply(
+                next -> {
+                    this.cached.set(next);
+                    return AstoUpload.last(next.size());
+                }
+            );
+        } else if (position > state.size()) {
+            result = this.part(state, position, chunk);
+        } else {
+            result = new FailedCompletionStage<>(
+                new InvalidRangeException(
+                    String.format("expected chunk at %d, but was at %d", state.size(), position)
+                )
+            );
+        }
+        return result;
     }
 
     /**
-     * List all chunk keys.
+     * Saves out-of-order chunk as separate part without updating upload state,
+     * so parts could be uploaded concurrently. Chunk size should be known
+     * to name the part by bytes range it covers.
      *
-     * @return Chunk keys.
+     * @param state Upload state.
+     * @param position Position of the first chunk byte.
+     * @param chunk Chunk of data.
+     * @return Offset of contiguous uploaded data.
      */
-    private CompletableFuture<Collection<Key>> chunks() {
-        return this.storage.list(this.root()).thenApply(
-            keys -> keys.stream()
-                .filter(key -> !key.string().equals(this.started().string()))
-                .collect(Collectors.toList())
-        );
+    private CompletionStage<Long> part(
+        final UploadState state, final long position, final Content chunk
+    ) {
+        final CompletionStage<Long> result;
+        if (chunk.size().isPresent() && chunk.size().get() > 0) {
+            final long size = chunk.size().get();
+            final Key key = this.part(position, position + size - 1);
+            final AtomicLong received = new AtomicLong();
+            result = this.storage.save(
+                key,
+                new Content.From(
+                    chunk.size(),
+                    Flowable.fromPublisher(chunk).doOnNext(
+                        buf -> received.addAndGet(buf.remaining())
+                    )
+                )
+            ).thenCompose(
+                nothing -> {
+                    final CompletionStage<Long> saved;
+                    if (received.get() == size) {
+                        saved = CompletableFuture.completedFuture(AstoUpload.last(state.size()));
+                    } else {
+                        saved = this.storage.delete(key).thenCompose(
+                            deleted -> new FailedCompletionStage<>(
+                                new InvalidRangeException(
+                                    String.format(
+                                        "expected %d bytes of chunk at %d, but received %d",
+                                        size, position, received.get()
+                                    )
+                                )
+                            )
+                        );
+                    }
+                    return saved;
+                }
+            );
+        } else {
+            result = new FailedCompletionStage<>(
+                new InvalidRangeException(
+                    String.format("size of out-of-order chunk at %d is unknown", position)
+                )
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Assembles in-order chunks and out-of-order parts into blob,
+     * digest is verified while content is streamed to blob store.
+     * Leading bytes of a part overlapping data before it are skipped,
+     * parts covered by data before them are ignored.
+     *
+     * @param layers Layers to put blob to.
+     * @param state Upload state.
+     * @param parts Out-of-order part keys.
+     * @param digest Expected blob digest.
+     * @return Blob.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private CompletionStage<Blob> assemble(
+        final Layers layers, final UploadState state, final Collection<Key> parts,
+        final Digest digest
+    ) {
+        final List<Segment> segments = this.chunks(state).stream()
+            .map(key -> new Segment(key, 0))
+            .collect(Collectors.toCollection(ArrayList::new));
+        final List<Key> sorted = parts.stream()
+            .sorted(Comparator.comparingLong(key -> AstoUpload.range(key)[0]))
+            .collect(Collectors.toList());
+        long size = state.size();
+        Optional<InvalidRangeException> gap = Optional.empty();
+        for (final Key part : sorted) {
+            final long[] range = AstoUpload.range(part);
+            if (range[0] > size) {
+                gap = Optional.of(
+                    new InvalidRangeException(
+                        String.format("expected chunk at %d, but was at %d", size, range[0])
+                    )
+                );
+                break;
+            }
+            if (range[1] >= size) {
+                segments.add(new Segment(part, size - range[0]));
+                size = range[1] + 1;
+            }
+        }
+        final CompletionStage<Blob> result;
+        if (gap.isPresent()) {
+            result = new FailedCompletionStage<>(gap.get());
+        } else {
+            result = layers.put(
+                new CheckedBlobSource(
+                    AstoUpload.content(this.storage, segments, size), digest, this.pool
+                )
+            ).thenCompose(
+                blob -> this.storage.deleteAll(this.root()).thenApply(nothing -> blob)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Blob source of uploaded chunks which digest was already verified.
+     * Single chunk is moved to destination without copying.
+     * Chunks are not removed by source except the single one.
+     *
+     * @param chunks Chunk keys ordered by position.
+     * @param size Uploaded size.
+     * @param digest Blob digest.
+     * @return Blob source.
+     */
+    private BlobSource source(final List<Key> chunks, final long size, final Digest digest) {
+        return new BlobSource() {
+            @Override
+            public Digest digest() {
+                return digest;
+            }
+
+            @Override
+            public CompletionStage<Void> saveTo(final Storage asto, final Key key) {
+                final CompletionStage<Void> result;
+                if (chunks.size() == 1) {
+                    result = asto.exists(key).thenCompose(
+                        exists -> {
+                            final CompletionStage<Void> moved;
+                            if (exists) {
+                                moved = asto.delete(chunks.get(0));
+                            } else {
+                                moved = asto.move(chunks.get(0), key);
+                            }
+                            return moved;
+                        }
+                    );
+                } else {
+                    result = new TrustedBlobSource(
+                        AstoUpload.content(
+                            asto,
+                            chunks.stream().map(chunk -> new Segment(chunk, 0))
+                                .collect(Collectors.toList()),
+                            size
+                        ),
+                        digest
+                    )
+                        .saveTo(asto, key);
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Upload state, loaded from storage if not loaded yet.
+     *
+     * @return Upload state.
+     */
+    private CompletionStage<UploadState> state() {
+        final UploadState state = this.cached.get();
+        final CompletionStage<UploadState> result;
+        if (state == null) {
+            result = this.storage.value(this.stateKey())
+                .thenCompose(content -> new PublisherAs(content).bytes())
+                .<CompletionStage<UploadState>>handle(
+                    (bytes, err) -> {
+                        final CompletionStage<UploadState> loaded;
+                        if (err == null) {
+                            loaded = CompletableFuture.completedFuture(new UploadState(bytes));
+                        } else if (new NotFound(err).test()) {
+                            loaded = this.legacy();
+                        } else {
+                            loaded = new FailedCompletionStage<>(err);
+                        }
+                        return loaded;
+                    }
+                )
+                .thenCompose(loaded -> loaded)
+                .thenApply(
+                    loaded -> {
+                        this.cached.compareAndSet(null, loaded);
+                        return this.cached.get();
+                    }
+                );
+        } else {
+            result = CompletableFuture.completedFuture(state);
+        }
+        return result;
     }
 
     /**
-     * Deletes upload blob data.
+     * Convert upload started before upload state record was introduced.
+     * Such upload has {@code started} marker with start time and at most one chunk
+     * named by its digest. The chunk is moved to in-order chunk key without hashing,
+     * it's digest is left unknown and is verified when upload is finished,
+     * then state record replaces the marker.
      *
-     * @return Completion or error signal.
+     * @return Upload state, failed with value not found error if upload was not started.
      */
-    private CompletionStage<Void> delete() {
-        return this.storage.list(this.root())
+    private CompletionStage<UploadState> legacy() {
+        final Key marker = new Key.From(this.root(), "started");
+        return this.storage.value(marker)
+            .thenCompose(content -> new PublisherAs(content).asciiString())
+            .thenApply(time -> new UploadState(Instant.parse(time.trim())))
             .thenCompose(
-                list -> CompletableFuture.allOf(
-                    list.stream().map(file -> this.storage.delete(file).toCompletableFuture())
-                        .toArray(CompletableFuture[]::new)
+                initial -> this.storage.list(this.root()).thenCompose(
+                    keys -> {
+                        final Optional<Key> chunk = keys.stream().filter(
+                            key -> key.parent().map(Key::string)
+                                .filter(this.root().string()::equals).isPresent()
+                                && new KeyLastPart(key).get().contains("_")
+                        ).findFirst();
+                        final CompletionStage<UploadState> state;
+                        if (chunk.isPresent()) {
+                            state = this.storage.metadata(chunk.get()).thenApply(
+                                meta -> meta.read(Meta.OP_SIZE).get()
+                            ).thenCompose(
+                                size -> this.storage.move(chunk.get(), this.chunk(0))
+                                    .thenApply(
+                                        nothing -> initial.append(0, size, Optional.empty())
+                                    )
+                            );
+                        } else {
+                            state = CompletableFuture.completedFuture(initial);
+                        }
+                        return state;
+                    }
                 )
+            )
+            .thenCompose(
+                state -> this.storage.save(this.stateKey(), state.content())
+                    .thenCompose(nothing -> this.storage.delete(marker))
+                    .thenApply(nothing -> state)
             );
     }
+
+    /**
+     * Build upload chunk key for given position.
+     *
+     * @param position Position of the first chunk byte.
+     * @return Chunk key.
+     */
+    private Key chunk(final long position) {
+        return new Key.From(this.root(), "chunks", String.valueOf(position));
+    }
+
+    /**
+     * Out-of-order parts root key.
+     *
+     * @return Key.
+     */
+    private Key partsRoot() {
+        return new Key.From(this.root(), "parts");
+    }
+
+    /**
+     * Build out-of-order part key for given bytes range.
+     *
+     * @param first Position of the first part byte.
+     * @param last Position of the last part byte, inclusive.
+     * @return Part key.
+     */
+    private Key part(final long first, final long last) {
+        return new Key.From(this.partsRoot(), String.format("%d-%d", first, last));
+    }
+
+    /**
+     * Chunk keys of upload state ordered by position.
+     *
+     * @param state Upload state.
+     * @return Chunk keys.
+     */
+    private List<Key> chunks(final UploadState state) {
+        return state.chunks().stream().map(this::chunk).collect(Collectors.toList());
+    }
+
+    /**
+     * Content of uploaded chunks and parts concatenated in order.
+     *
+     * @param storage Storage.
+     * @param segments Segments of chunks and parts ordered by position.
+     * @param size Total size.
+     * @return Content.
+     */
+    private static Content content(
+        final Storage storage, final List<Segment> segments, final long size
+    ) {
+        return new Content.From(
+            size,
+            Flowable.fromIterable(segments).concatMap(
+                segment -> SingleInterop.fromFuture(storage.value(segment.key()))
+                    .flatMapPublisher(content -> AstoUpload.skip(content, segment.skip()))
+            )
+        );
+    }
+
+    /**
+     * Drop leading bytes of content.
+     *
+     * @param content Content.
+     * @param count Amount of bytes to drop.
+     * @return Remaining bytes.
+     */
+    private static Flowable<ByteBuffer> skip(final Content content, final long count) {
+        final Flowable<ByteBuffer> res;
+        if (count == 0) {
+            res = Flowable.fromPublisher(content);
+        } else {
+            final AtomicLong left = new AtomicLong(count);
+            res = Flowable.fromPublisher(content).map(
+                buf -> {
+                    final ByteBuffer rest = buf.duplicate();
+                    final int drop = (int) Math.min(left.get(), rest.remaining());
+                    left.addAndGet(-drop);
+                    rest.position(rest.position() + drop);
+                    return rest;
+                }
+            ).filter(ByteBuffer::hasRemaining);
+        }
+        return res;
+    }
+
+    /**
+     * Offset of the last uploaded byte.
+     *
+     * @param size Uploaded size.
+     * @return Offset.
+     */
+    private static long last(final long size) {
+        return Math.max(size - 1, 0);
+    }
+
+    /**
+     * Read bytes range from part key.
+     *
+     * @param part Part key.
+     * @return Positions of the first and the last part bytes.
+     */
+    private static long[] range(final Key part) {
+        final String name = new KeyLastPart(part).get();
+        final int sep = name.indexOf('-');
+        return new long[] {
+            Long.parseLong(name.substring(0, sep)),
+            Long.parseLong(name.substring(sep + 1)),
+        };
+    }
+
+    /**
+     * Uploaded chunk or part with amount of leading bytes overlapped by previous data.
+     *
+     * @since 0.18
+     */
+    private static final class Segment {
+
+        /**
+         * Chunk or part key.
+         */
+        private final Key origin;
+
+        /**
+         * Amount of leading bytes to skip.
+         */
+        private final long bytes;
+
+        /**
+         * Ctor.
+         *
+         * @param origin Chunk or part key.
+         * @param bytes Amount of leading bytes to skip.
+         */
+        Segment(final Key origin, final long bytes) {
+            this.origin = origin;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Chunk or part key.
+         *
+         * @return Key.
+         */
+        Key key() {
+            return this.origin;
+        }
+
+        /**
+         * Amount of leading bytes to skip.
+         *
+         * @return Bytes count.
+         */
+        long skip() {
+            return this.bytes;
+        }
+    }
 }
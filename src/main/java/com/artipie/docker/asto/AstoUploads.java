@@ -8,8 +8,9 @@ import com.artipie.asto.Storage;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Upload;
 import com.artipie.docker.Uploads;
+import com.artipie.docker.misc.HashingPool;
+import java.time.Instant;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
@@ -35,6 +36,11 @@ public final class AstoUploads implements Uploads {
      */
     private final RepoName name;
 
+    /**
+     * Hashing pool.
+     */
+    private final HashingPool pool;
+
     /**
      * Ctor.
      *
@@ -43,16 +49,34 @@ public final class AstoUploads implements Uploads {
      * @param name Repository name
      */
     public AstoUploads(final Storage asto, final UploadsLayout layout, final RepoName name) {
+        this(asto, layout, name, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Asto storage
+     * @param layout Uploads layout.
+     * @param name Repository name
+     * @param pool Hashing pool for uploaded data.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AstoUploads(
+        final Storage asto, final UploadsLayout layout, final RepoName name, final HashingPool pool
+    ) {
         this.asto = asto;
         this.layout = layout;
         this.name = name;
+        this.pool = pool;
     }
 
     @Override
     public CompletionStage<Upload> start() {
-        final String uuid = UUID.randomUUID().toString();
-        final AstoUpload upload = new AstoUpload(this.asto, this.layout, this.name, uuid);
-        return upload.start().thenApply(ignored -> upload);
+        final Instant time = Instant.now();
+        final AstoUpload upload = new AstoUpload(
+            this.asto, this.layout, this.name, new UploadUuid(time).value(), this.pool
+        );
+        return upload.start(time).thenApply(ignored -> upload);
     }
 
     @Override
@@ -61,19 +85,9 @@ public final class AstoUploads implements Uploads {
         if (uuid.isEmpty()) {
             result = CompletableFuture.completedFuture(Optional.empty());
         } else {
-            result = this.asto.list(this.layout.upload(this.name, uuid)).thenApply(
-                list -> {
-                    final Optional<Upload> upload;
-                    if (list.isEmpty()) {
-                        upload = Optional.empty();
-                    } else {
-                        upload = Optional.of(
-                            new AstoUpload(this.asto, this.layout, this.name, uuid)
-                        );
-                    }
-                    return upload;
-                }
-            );
+            result = new AstoUpload(this.asto, this.layout, this.name, uuid, this.pool).load()
+                .thenApply(upload -> upload.map(Upload.class::cast))
+                .toCompletableFuture();
         }
         return result;
     }
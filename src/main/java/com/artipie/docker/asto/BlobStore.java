@@ -30,5 +30,16 @@ public interface BlobStore {
      * @return Added blob.
      */
     CompletionStage<Blob> put(BlobSource source);
-}
 
+    /**
+     * Mount blob from other repository into the store.
+     *
+     * @param blob Blob.
+     * @return Mounted blob.
+     */
+    default CompletionStage<Blob> mount(final Blob blob) {
+        return blob.content().thenCompose(
+            content -> this.put(new TrustedBlobSource(content, blob.digest()))
+        );
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Bounded in-memory cache of blob metadata: existence and size by blob data key.
+ * Blobs are immutable, so once blob is known to exist it's size never changes
+ * and entries are kept until evicted as least recently used or invalidated on blob delete.
+ * Absence of blob is never cached, because blob could be written by other registry instance.
+ * <p>
+ * Entries are split into stripes by key hash, each stripe is locked separately
+ * and evicts it's own least recently used entries, so concurrent requests for
+ * different blobs rarely wait for each other. Sizes are kept in mutable
+ * primitive holders, so updates do not allocate.
+ *
+ * @since 0.18
+ */
+public final class BlobsCache {
+
+    /**
+     * Default capacity.
+     */
+    private static final int CAPACITY = 10_000;
+
+    /**
+     * Maximum number of stripes.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Minimal number of entries per stripe.
+     */
+    private static final int STRIPE_MIN = 256;
+
+    /**
+     * Size value of blob which is known to exist but size is not read yet.
+     */
+    private static final long UNKNOWN = -1L;
+
+    /**
+     * Size value of blob which is not cached.
+     */
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    /**
+     * Stripes of blob sizes by key string.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Content cache of small blobs.
+     */
+    private final HotBlobs hotblobs;
+
+    /**
+     * Ctor.
+     */
+    public BlobsCache() {
+        this(BlobsCache.CAPACITY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param capacity Maximum number of cached blobs.
+     */
+    public BlobsCache(final int capacity) {
+        this(capacity, new HotBlobs());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param capacity Maximum number of cached blobs.
+     * @param hot Content cache of small blobs.
+     */
+    public BlobsCache(final int capacity, final HotBlobs hot) {
+        this.hotblobs = hot;
+        int count = 1;
+        while (count < BlobsCache.STRIPES && count * 2 * BlobsCache.STRIPE_MIN <= capacity) {
+            count *= 2;
+        }
+        this.stripes = new Stripe[count];
+        for (int idx = 0; idx < count; ++idx) {
+            this.stripes[idx] = new Stripe((capacity + count - 1) / count);
+        }
+    }
+
+    /**
+     * Check if blob is known to exist.
+     *
+     * @param key Blob data key.
+     * @return True if blob exists.
+     */
+    public boolean contains(final Key key) {
+        return this.stripe(key).size(key.string()) != BlobsCache.ABSENT;
+    }
+
+    /**
+     * Get blob size if known.
+     *
+     * @param key Blob data key.
+     * @return Blob size, empty if not cached.
+     */
+    public OptionalLong size(final Key key) {
+        final long size = this.stripe(key).size(key.string());
+        final OptionalLong res;
+        if (size == BlobsCache.ABSENT || size == BlobsCache.UNKNOWN) {
+            res = OptionalLong.empty();
+        } else {
+            res = OptionalLong.of(size);
+        }
+        return res;
+    }
+
+    /**
+     * Remember that blob exists, keeping it's size if already known.
+     *
+     * @param key Blob data key.
+     */
+    public void exists(final Key key) {
+        this.stripe(key).put(key.string(), BlobsCache.UNKNOWN, false);
+    }
+
+    /**
+     * Remember blob size.
+     *
+     * @param key Blob data key.
+     * @param size Blob size.
+     */
+    public void size(final Key key, final long size) {
+        this.stripe(key).put(key.string(), size, true);
+    }
+
+    /**
+     * Content cache of small blobs.
+     *
+     * @return Hot blobs cache.
+     */
+    public HotBlobs hot() {
+        return this.hotblobs;
+    }
+
+    /**
+     * Forget blob, should be called when blob is deleted.
+     *
+     * @param key Blob data key.
+     */
+    public void invalidate(final Key key) {
+        this.stripe(key).remove(key.string());
+        this.hotblobs.invalidate(key);
+    }
+
+    /**
+     * Stripe of the key.
+     *
+     * @param key Blob data key.
+     * @return Stripe.
+     */
+    private Stripe stripe(final Key key) {
+        final int hash = key.string().hashCode();
+        return this.stripes[(hash ^ hash >>> 16) & this.stripes.length - 1];
+    }
+
+    /**
+     * Separately locked part of the cache with least recently used eviction.
+     *
+     * @since 0.18
+     */
+    private static final class Stripe {
+
+        /**
+         * Size holders by key string in access order.
+         */
+        private final Map<String, Size> sizes;
+
+        /**
+         * Ctor.
+         *
+         * @param capacity Maximum number of entries.
+         */
+        @SuppressWarnings("serial")
+        Stripe(final int capacity) {
+            this.sizes = new LinkedHashMap<String, Size>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Size> eldest) {
+                    return this.size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * Blob size.
+         *
+         * @param key Key string.
+         * @return Size, {@link BlobsCache#ABSENT} if blob is not cached.
+         */
+        synchronized long size(final String key) {
+            final Size size = this.sizes.get(key);
+            final long res;
+            if (size == null) {
+                res = BlobsCache.ABSENT;
+            } else {
+                res = size.value;
+            }
+            return res;
+        }
+
+        /**
+         * Put blob size.
+         *
+         * @param key Key string.
+         * @param value Size.
+         * @param replace Whether to replace size of cached blob.
+         */
+        synchronized void put(final String key, final long value, final boolean replace) {
+            final Size size = this.sizes.get(key);
+            if (size == null) {
+                this.sizes.put(key, new Size(value));
+            } else if (replace) {
+                size.value = value;
+            }
+        }
+
+        /**
+         * Remove blob.
+         *
+         * @param key Key string.
+         */
+        synchronized void remove(final String key) {
+            this.sizes.remove(key);
+        }
+    }
+
+    /**
+     * Mutable blob size holder.
+     *
+     * @since 0.18
+     */
+    private static final class Size {
+
+        /**
+         * Size value.
+         */
+        private long value;
+
+        /**
+         * Ctor.
+         *
+         * @param value Size value.
+         */
+        Size(final long value) {
+            this.value = value;
+        }
+    }
+}
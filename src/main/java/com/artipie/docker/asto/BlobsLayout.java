@@ -7,6 +7,7 @@ package com.artipie.docker.asto;
 import com.artipie.asto.Key;
 import com.artipie.docker.Digest;
 import com.artipie.docker.RepoName;
+import java.util.Optional;
 
 /**
  * Blobs layout in storage. Used to evaluate location for blobs in storage.
@@ -23,4 +24,37 @@ public interface BlobsLayout {
      * @return Key for storing blob.
      */
     Key blob(RepoName repo, Digest digest);
+
+    /**
+     * Get root key of blobs shared by all repositories.
+     *
+     * @return Blobs root key.
+     */
+    default Key blobs() {
+        return new Key.From("blobs");
+    }
+
+    /**
+     * Get key of repository layer link to blob data stored by other key.
+     * By default link is stored by repository blob key under {@code links} root.
+     *
+     * @param repo Repository name.
+     * @param digest Blob digest.
+     * @return Key for storing layer link.
+     */
+    default Key link(final RepoName repo, final Digest digest) {
+        return new Key.From(new Key.From("links"), this.blob(repo, digest));
+    }
+
+    /**
+     * Get key by which blob could be stored by previous layout,
+     * blobs are looked up by this key if not found by {@link #blob(RepoName, Digest)}.
+     *
+     * @param repo Repository name.
+     * @param digest Blob digest.
+     * @return Legacy blob key, empty if layout was not changed.
+     */
+    default Optional<Key> legacy(final RepoName repo, final Digest digest) {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.docker.RepoName;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Sorted index of names of repositories containing manifests.
+ * Repository is added to the index when it gets it's first manifest.
+ * Index is built from repositories found by {@link RepositoriesWalk} on first use.
+ *
+ * @since 0.18
+ */
+final class CatalogIndex {
+
+    /**
+     * Storage key part of repository manifests.
+     */
+    private static final String MANIFESTS = "_manifests";
+
+    /**
+     * Names index.
+     */
+    private final NamesIndex index;
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param layout Storage layout.
+     */
+    CatalogIndex(final Storage asto, final Layout layout) {
+        this(
+            new NamesIndex(
+                asto, layout.catalogIndex(),
+                () -> CatalogIndex.names(asto, layout.repositories())
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param index Names index.
+     */
+    CatalogIndex(final NamesIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Read page of repository names in lexicographical order.
+     *
+     * @param from From which name to start, exclusive.
+     * @param limit Maximum number of names returned.
+     * @return Repository names.
+     */
+    CompletionStage<List<String>> page(final Optional<RepoName> from, final int limit) {
+        final Optional<String> last = from.map(RepoName::value);
+        return this.index.page(last, limit).thenCompose(
+            page -> page.<CompletionStage<List<String>>>map(CompletableFuture::completedFuture)
+                .orElseGet(
+                    () -> this.index.build()
+                        .thenCompose(nothing -> this.index.page(last, limit))
+                        .thenApply(Optional::get)
+                )
+        );
+    }
+
+    /**
+     * Add repository to the index if it is not there yet.
+     *
+     * @param name Repository name.
+     * @return Completion of update.
+     */
+    CompletionStage<Void> add(final RepoName name) {
+        return this.index.add(name.value());
+    }
+
+    /**
+     * Drop the index to be built again on next catalog listing.
+     *
+     * @return Completion of drop.
+     */
+    CompletionStage<Void> invalidate() {
+        return this.index.invalidate();
+    }
+
+    /**
+     * Names of repositories containing manifests.
+     *
+     * @param asto Storage.
+     * @param root Repositories root key.
+     * @return Repository names.
+     */
+    private static CompletionStage<Collection<String>> names(
+        final Storage asto, final Key root
+    ) {
+        return new RepositoriesWalk(asto, root).names(
+            (name, children) -> children.contains(CatalogIndex.MANIFESTS)
+        );
+    }
+}
@@ -10,6 +10,7 @@ import com.artipie.asto.Storage;
 import com.artipie.docker.Digest;
 import com.artipie.docker.error.InvalidDigestException;
 import com.artipie.docker.misc.DigestedFlowable;
+import com.artipie.docker.misc.HashingPool;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -29,6 +30,11 @@ public final class CheckedBlobSource implements BlobSource {
      */
     private final Digest dig;
 
+    /**
+     * Hashing pool.
+     */
+    private final HashingPool pool;
+
     /**
      * Ctor.
      *
@@ -36,8 +42,20 @@ public final class CheckedBlobSource implements BlobSource {
      * @param dig Blob digest.
      */
     public CheckedBlobSource(final Content content, final Digest dig) {
+        this(content, dig, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param content Blob content.
+     * @param dig Blob digest.
+     * @param pool Hashing pool.
+     */
+    public CheckedBlobSource(final Content content, final Digest dig, final HashingPool pool) {
         this.content = content;
         this.dig = dig;
+        this.pool = pool;
     }
 
     @Override
@@ -47,7 +65,7 @@ public final class CheckedBlobSource implements BlobSource {
 
     @Override
     public CompletionStage<Void> saveTo(final Storage storage, final Key key) {
-        final DigestedFlowable digested = new DigestedFlowable(this.content);
+        final DigestedFlowable digested = new DigestedFlowable(this.content, this.pool);
         final Content checked = new Content.From(
             this.content.size(),
             digested.doOnComplete(
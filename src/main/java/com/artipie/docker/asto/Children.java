@@ -40,13 +40,18 @@ class Children {
 
     /**
      * Extract unique child names in lexicographical order.
+     * Keys of sibling sharing root name prefix, such as `tags-index` for `tags` root,
+     * are skipped, since storages listing by string prefix return them too.
      *
      * @return Ordered child names.
      */
     public Set<String> names() {
         final Set<String> set = new TreeSet<>();
+        final String prefix = String.format("%s/", this.root.string());
         for (final Key key : this.keys) {
-            set.add(this.child(key));
+            if (this.root.string().isEmpty() || key.string().startsWith(prefix)) {
+                set.add(this.child(key));
+            }
         }
         return set;
     }
@@ -26,6 +26,13 @@ public final class DefaultLayout implements Layout {
         return new BlobKey(digest);
     }
 
+    @Override
+    public Key link(final RepoName repo, final Digest digest) {
+        return new Key.From(
+            this.repositories(), repo.value(), "_layers", digest.alg(), digest.hex(), "link"
+        );
+    }
+
     @Override
     public Key manifest(final RepoName repo, final ManifestRef ref) {
         return new Key.From(this.manifests(repo), ref.link().string());
@@ -41,6 +48,11 @@ public final class DefaultLayout implements Layout {
         return new UploadKey(repo, uuid);
     }
 
+    @Override
+    public Key uploads(final RepoName repo) {
+        return new Key.From(this.repositories(), repo.value(), "_uploads");
+    }
+
     /**
      * Create manifests root key.
      *
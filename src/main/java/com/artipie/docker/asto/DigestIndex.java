@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.docker.Digest;
+import com.artipie.docker.RepoName;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Registry-wide index of repositories containing blobs.
+ * Each repository containing blob is marked by empty key
+ * {@code <index root>/<algorithm>/<hex digest>/<repository name>/repo},
+ * so repositories are found by listing digest key. Index root is provided by
+ * {@link Layout#digestIndex()}. Existing marker is not written again.
+ *
+ * @since 0.18
+ */
+final class DigestIndex {
+
+    /**
+     * Marker key name.
+     */
+    private static final String MARKER = "repo";
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Index root key.
+     */
+    private final Key root;
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Storage layout.
+     */
+    DigestIndex(final Storage storage, final Layout layout) {
+        this.storage = storage;
+        this.root = layout.digestIndex();
+    }
+
+    /**
+     * Add repository containing blob to index.
+     *
+     * @param name Repository name.
+     * @param digest Blob digest.
+     * @return Completion of adding.
+     */
+    CompletionStage<Void> add(final RepoName name, final Digest digest) {
+        final Key marker = new Key.From(this.key(digest), name.value(), DigestIndex.MARKER);
+        return this.storage.exists(marker).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = CompletableFuture.allOf();
+                } else {
+                    res = this.storage.save(marker, new Content.From(new byte[0]));
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Names of repositories containing blob.
+     *
+     * @param digest Blob digest.
+     * @return Repository names.
+     */
+    CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        final Key key = this.key(digest);
+        final int skip = key.parts().size();
+        return this.storage.list(key).thenApply(
+            keys -> keys.stream()
+                .map(Key::parts)
+                .filter(parts -> DigestIndex.MARKER.equals(parts.get(parts.size() - 1)))
+                .map(parts -> DigestIndex.name(parts.subList(skip, parts.size() - 1)))
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Digest key.
+     *
+     * @param digest Blob digest.
+     * @return Key.
+     */
+    private Key key(final Digest digest) {
+        return new Key.From(this.root, digest.alg(), digest.hex());
+    }
+
+    /**
+     * Repository name from key parts.
+     *
+     * @param parts Key parts.
+     * @return Repository name.
+     */
+    private static RepoName name(final List<String> parts) {
+        return new RepoName.Valid(String.join("/", parts));
+    }
+}
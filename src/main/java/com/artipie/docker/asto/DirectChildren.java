@@ -0,0 +1,59 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Names of direct children of storage key.
+ * Listed one level if storage supports {@link OneLevelListing},
+ * otherwise extracted from recursive listing by {@link Children}.
+ *
+ * @since 0.18
+ */
+final class DirectChildren {
+
+    /**
+     * Storage.
+     */
+    private final Storage asto;
+
+    /**
+     * Parent key.
+     */
+    private final Key root;
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param root Parent key.
+     */
+    DirectChildren(final Storage asto, final Key root) {
+        this.asto = asto;
+        this.root = root;
+    }
+
+    /**
+     * Unique child names in lexicographical order.
+     *
+     * @return Ordered child names.
+     */
+    CompletionStage<Collection<String>> names() {
+        final CompletionStage<Collection<String>> res;
+        if (this.asto instanceof OneLevelListing) {
+            res = ((OneLevelListing) this.asto).children(this.root).thenApply(TreeSet::new);
+        } else {
+            res = this.asto.list(this.root).thenApply(
+                keys -> new Children(this.root, keys).names()
+            );
+        }
+        return res;
+    }
+}
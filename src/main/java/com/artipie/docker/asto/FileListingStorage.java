@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File system storage listing direct children of a key by reading single directory.
+ * Directory is read on given executor, not on common fork-join pool,
+ * since reading it blocks.
+ * All other operations are delegated to {@link FileStorage}.
+ *
+ * @since 0.18
+ */
+public final class FileListingStorage extends Storage.Wrap implements OneLevelListing {
+
+    /**
+     * Default executor of blocking file system operations.
+     */
+    static final Executor IO = Executors.newCachedThreadPool(
+        runnable -> {
+            final Thread thread = new Thread(runnable, "docker-file-storage");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    /**
+     * Storage root directory.
+     */
+    private final Path dir;
+
+    /**
+     * Executor of blocking file system operations.
+     */
+    private final Executor exec;
+
+    /**
+     * Ctor.
+     *
+     * @param dir Storage root directory.
+     */
+    public FileListingStorage(final Path dir) {
+        this(dir, FileListingStorage.IO);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param dir Storage root directory.
+     * @param exec Executor of blocking file system operations.
+     */
+    public FileListingStorage(final Path dir, final Executor exec) {
+        super(new FileStorage(dir));
+        this.dir = dir;
+        this.exec = exec;
+    }
+
+    @Override
+    public CompletableFuture<Collection<String>> children(final Key prefix) {
+        final Path path = this.dir.resolve(prefix.string()).normalize();
+        return CompletableFuture.supplyAsync(
+            () -> {
+                final Collection<String> res;
+                if (path.startsWith(this.dir.normalize()) && Files.isDirectory(path)) {
+                    try (Stream<Path> files = Files.list(path)) {
+                        res = files.map(file -> file.getFileName().toString())
+                            .collect(Collectors.toList());
+                    } catch (final IOException err) {
+                        throw new ArtipieIOException(err);
+                    }
+                } else {
+                    res = Collections.emptyList();
+                }
+                return res;
+            },
+            this.exec
+        );
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Size-bounded off-heap cache of small blobs content, such as manifests and image configs.
+ * Content is stored in direct buffers and served as read-only views without copying.
+ * Entries are evicted in least recently used order, new entry is admitted only if it is
+ * accessed more frequently than entries it evicts (TinyLFU admission), so one-off reads of
+ * rarely used blobs do not flush hot ones.
+ *
+ * @since 0.18
+ */
+public final class HotBlobs {
+
+    /**
+     * Maximum total size of cached content in bytes.
+     */
+    private final long capacity;
+
+    /**
+     * Maximum size of single cached blob in bytes.
+     */
+    private final int threshold;
+
+    /**
+     * Cached content by key string in access order.
+     */
+    private final Map<String, ByteBuffer> entries;
+
+    /**
+     * Access frequency sketch.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Total size of cached content in bytes.
+     */
+    private long used;
+
+    /**
+     * Hits counter.
+     */
+    private long hitcount;
+
+    /**
+     * Misses counter.
+     */
+    private long misscount;
+
+    /**
+     * Evictions counter.
+     */
+    private long evictcount;
+
+    /**
+     * Ctor for disabled cache.
+     */
+    public HotBlobs() {
+        this(0L, 0);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param capacity Maximum total size of cached content in bytes.
+     * @param threshold Maximum size of single cached blob in bytes.
+     */
+    public HotBlobs(final long capacity, final int threshold) {
+        this.capacity = capacity;
+        this.threshold = threshold;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch();
+    }
+
+    /**
+     * Check if blob of given size could be cached.
+     *
+     * @param size Blob size.
+     * @return True if blob is small enough.
+     */
+    public boolean accepts(final long size) {
+        return this.capacity > 0 && size <= this.threshold && size <= this.capacity;
+    }
+
+    /**
+     * Get cached blob content.
+     *
+     * @param key Blob data key.
+     * @return Read-only content buffer, empty if not cached.
+     */
+    public Optional<ByteBuffer> get(final Key key) {
+        final String name = key.string();
+        final ByteBuffer buf;
+        synchronized (this.entries) {
+            this.sketch.increment(name);
+            buf = this.entries.get(name);
+            if (buf == null) {
+                this.misscount += 1;
+            } else {
+                this.hitcount += 1;
+            }
+        }
+        return Optional.ofNullable(buf).map(ByteBuffer::duplicate);
+    }
+
+    /**
+     * Offer blob content to the cache.
+     * Content is not cached if it is too large or admission policy rejects it.
+     *
+     * @param key Blob data key.
+     * @param content Content bytes.
+     */
+    public void put(final Key key, final byte[] content) {
+        if (this.accepts(content.length)) {
+            final String name = key.string();
+            synchronized (this.entries) {
+                if (!this.entries.containsKey(name) && this.admit(name, content.length)) {
+                    final ByteBuffer buf = ByteBuffer.allocateDirect(content.length);
+                    buf.put(content);
+                    buf.flip();
+                    this.entries.put(name, buf.asReadOnlyBuffer());
+                    this.used += content.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove blob content from the cache.
+     *
+     * @param key Blob data key.
+     */
+    public void invalidate(final Key key) {
+        synchronized (this.entries) {
+            final ByteBuffer buf = this.entries.remove(key.string());
+            if (buf != null) {
+                this.used -= buf.capacity();
+            }
+        }
+    }
+
+    /**
+     * Amount of requests served from the cache.
+     *
+     * @return Hits count.
+     */
+    public long hits() {
+        synchronized (this.entries) {
+            return this.hitcount;
+        }
+    }
+
+    /**
+     * Amount of requests not found in the cache.
+     *
+     * @return Misses count.
+     */
+    public long misses() {
+        synchronized (this.entries) {
+            return this.misscount;
+        }
+    }
+
+    /**
+     * Amount of entries evicted to free space for more frequently used ones.
+     *
+     * @return Evictions count.
+     */
+    public long evictions() {
+        synchronized (this.entries) {
+            return this.evictcount;
+        }
+    }
+
+    /**
+     * Total size of cached content.
+     *
+     * @return Size in bytes.
+     */
+    public long size() {
+        synchronized (this.entries) {
+            return this.used;
+        }
+    }
+
+    /**
+     * Free space for new entry if it is used more frequently than entries to evict.
+     * Should be called holding the lock.
+     *
+     * @param name Key string of new entry.
+     * @param size Size of new entry.
+     * @return True if there is enough space for new entry.
+     */
+    private boolean admit(final String name, final int size) {
+        final int freq = this.sketch.frequency(name);
+        final List<Map.Entry<String, ByteBuffer>> victims = new ArrayList<>(0);
+        final Iterator<Map.Entry<String, ByteBuffer>> iter = this.entries.entrySet().iterator();
+        long free = this.capacity - this.used;
+        boolean admitted = true;
+        while (free < size) {
+            final Map.Entry<String, ByteBuffer> victim = iter.next();
+            if (this.sketch.frequency(victim.getKey()) >= freq) {
+                admitted = false;
+                break;
+            }
+            victims.add(victim);
+            free += victim.getValue().capacity();
+        }
+        if (admitted) {
+            for (final Map.Entry<String, ByteBuffer> victim : victims) {
+                this.entries.remove(victim.getKey());
+                this.used -= victim.getValue().capacity();
+                this.evictcount += 1;
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Count-min sketch of access frequencies with periodic aging,
+     * counters are halved after sample of accesses to forget old popularity.
+     *
+     * @since 0.18
+     * @checkstyle MagicNumberCheck (100 lines)
+     */
+    private static final class FrequencySketch {
+
+        /**
+         * Number of counters in each row, power of two.
+         */
+        private static final int WIDTH = 4096;
+
+        /**
+         * Number of rows.
+         */
+        private static final int DEPTH = 4;
+
+        /**
+         * Maximum counter value.
+         */
+        private static final int MAX = 15;
+
+        /**
+         * Hash seeds for rows.
+         */
+        private static final int[] SEEDS = {0x97cb3127, 0xb7c1e0f5, 0x6e1a5c3d, 0x2f8d4b9b};
+
+        /**
+         * Counters.
+         */
+        private final byte[] table;
+
+        /**
+         * Accesses since last aging.
+         */
+        private int additions;
+
+        /**
+         * Ctor.
+         */
+        FrequencySketch() {
+            this.table = new byte[FrequencySketch.WIDTH * FrequencySketch.DEPTH];
+        }
+
+        /**
+         * Record access.
+         *
+         * @param name Key string.
+         */
+        void increment(final String name) {
+            final int hash = name.hashCode();
+            for (int row = 0; row < FrequencySketch.DEPTH; ++row) {
+                final int idx = FrequencySketch.index(hash, row);
+                if (this.table[idx] < FrequencySketch.MAX) {
+                    this.table[idx] += 1;
+                }
+            }
+            this.additions += 1;
+            if (this.additions >= FrequencySketch.WIDTH * 10) {
+                for (int idx = 0; idx < this.table.length; ++idx) {
+                    this.table[idx] = (byte) (this.table[idx] >> 1);
+                }
+                this.additions = 0;
+            }
+        }
+
+        /**
+         * Estimate access frequency.
+         *
+         * @param name Key string.
+         * @return Frequency.
+         */
+        int frequency(final String name) {
+            final int hash = name.hashCode();
+            int min = FrequencySketch.MAX;
+            for (int row = 0; row < FrequencySketch.DEPTH; ++row) {
+                min = Math.min(min, this.table[FrequencySketch.index(hash, row)]);
+            }
+            return min;
+        }
+
+        /**
+         * Counter index for hash in row.
+         *
+         * @param hash Key hash.
+         * @param row Row number.
+         * @return Index in table.
+         */
+        private static int index(final int hash, final int row) {
+            int mixed = (hash ^ FrequencySketch.SEEDS[row]) * 0x9e3779b9;
+            mixed ^= mixed >>> 16;
+            return row * FrequencySketch.WIDTH + (mixed & FrequencySketch.WIDTH - 1);
+        }
+    }
+}
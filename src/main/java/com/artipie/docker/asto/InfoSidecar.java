@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.docker.Digest;
+import com.artipie.docker.manifest.ManifestInfo;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+
+/**
+ * Compact manifest metadata stored next to manifest link by digest.
+ * Contains manifest size and media types, digest is known from the key.
+ *
+ * @since 0.18
+ */
+final class InfoSidecar {
+
+    /**
+     * Manifest metadata.
+     */
+    private final ManifestInfo info;
+
+    /**
+     * Ctor.
+     *
+     * @param info Manifest metadata.
+     */
+    InfoSidecar(final ManifestInfo info) {
+        this.info = info;
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param digest Manifest digest.
+     * @param bytes Serialized metadata.
+     */
+    InfoSidecar(final Digest digest, final byte[] bytes) {
+        this(InfoSidecar.parse(digest, bytes));
+    }
+
+    /**
+     * Manifest metadata.
+     *
+     * @return Metadata.
+     */
+    ManifestInfo info() {
+        return this.info;
+    }
+
+    /**
+     * Serialize metadata.
+     *
+     * @return Content.
+     */
+    Content content() {
+        final JsonArrayBuilder types = Json.createArrayBuilder();
+        this.info.mediaTypes().forEach(types::add);
+        return new Content.From(
+            Json.createObjectBuilder()
+                .add("size", this.info.size())
+                .add("mediaTypes", types)
+                .build()
+                .toString()
+                .getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Read metadata JSON.
+     *
+     * @param digest Manifest digest.
+     * @param bytes Serialized metadata.
+     * @return Metadata.
+     */
+    private static ManifestInfo parse(final Digest digest, final byte[] bytes) {
+        try (JsonReader reader = Json.createReader(new ByteArrayInputStream(bytes))) {
+            final JsonObject json = reader.readObject();
+            return new ManifestInfo(
+                digest,
+                new LinkedHashSet<>(
+                    json.getJsonArray("mediaTypes").getValuesAs(JsonString::getString)
+                ),
+                json.getJsonNumber("size").longValueExact()
+            );
+        }
+    }
+}
@@ -20,4 +20,26 @@ public interface Layout extends BlobsLayout, ManifestsLayout, UploadsLayout {
      * @return Key for storing repositories.
      */
     Key repositories();
+
+    /**
+     * Create repositories catalog index key, stored next to repositories.
+     *
+     * @return Key for storing catalog index.
+     */
+    default Key catalogIndex() {
+        return this.repositories().parent()
+            .<Key>map(parent -> new Key.From(parent, "catalog-index"))
+            .orElseGet(() -> new Key.From("catalog-index"));
+    }
+
+    /**
+     * Create registry-wide digest index key, stored next to repositories.
+     *
+     * @return Key for storing digest index.
+     */
+    default Key digestIndex() {
+        return this.repositories().parent()
+            .<Key>map(parent -> new Key.From(parent, "digest-index"))
+            .orElseGet(() -> new Key.From("digest-index"));
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.docker.Digest;
+import com.artipie.docker.ref.ManifestRef;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory cache of manifest links: manifest digest by reference link key.
+ * Links by digest never change and are cached until evicted, links by tag expire after TTL,
+ * so tags updated by other registry instances are eventually seen.
+ * Tags updated by this instance are written through the cache.
+ *
+ * @since 0.18
+ */
+public final class LinksCache {
+
+    /**
+     * Default TTL of tag links.
+     */
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    /**
+     * Default capacity.
+     */
+    private static final int CAPACITY = 10_000;
+
+    /**
+     * TTL of tag links.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Cached links by key string.
+     */
+    private final Map<String, Entry> links;
+
+    /**
+     * Ctor.
+     */
+    public LinksCache() {
+        this(LinksCache.TTL);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param ttl TTL of tag links.
+     */
+    public LinksCache(final Duration ttl) {
+        this(ttl, LinksCache.CAPACITY, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param ttl TTL of tag links.
+     * @param capacity Maximum number of cached links.
+     * @param clock Clock.
+     */
+    @SuppressWarnings("serial")
+    public LinksCache(final Duration ttl, final int capacity, final Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.links = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get manifest digest by link key.
+     *
+     * @param key Link key.
+     * @return Digest, empty if not cached or expired.
+     */
+    public Optional<Digest> get(final Key key) {
+        final Instant now = this.clock.instant();
+        synchronized (this.links) {
+            final Entry entry = this.links.get(key.string());
+            final Optional<Digest> res;
+            if (entry == null) {
+                res = Optional.empty();
+            } else if (entry.expires.isAfter(now)) {
+                res = Optional.of(entry.digest);
+            } else {
+                this.links.remove(key.string());
+                res = Optional.empty();
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Remember manifest digest by link key.
+     *
+     * @param key Link key.
+     * @param ref Manifest reference.
+     * @param digest Manifest digest.
+     */
+    public void put(final Key key, final ManifestRef ref, final Digest digest) {
+        final Instant expires;
+        if (new Digest.FromString(ref.string()).valid()) {
+            expires = Instant.MAX;
+        } else {
+            expires = this.clock.instant().plus(this.ttl);
+        }
+        synchronized (this.links) {
+            this.links.put(key.string(), new Entry(digest, expires));
+        }
+    }
+
+    /**
+     * Cached link.
+     *
+     * @since 0.18
+     */
+    private static final class Entry {
+
+        /**
+         * Manifest digest.
+         */
+        private final Digest digest;
+
+        /**
+         * Expiration time.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         *
+         * @param digest Manifest digest.
+         * @param expires Expiration time.
+         */
+        Entry(final Digest digest, final Instant expires) {
+            this.digest = digest;
+            this.expires = expires;
+        }
+    }
+}
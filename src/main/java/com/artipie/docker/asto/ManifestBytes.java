@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.FailedCompletionStage;
+import com.artipie.asto.ext.Digests;
+import com.artipie.docker.Digest;
+import com.artipie.docker.error.ManifestTooLargeException;
+import com.artipie.docker.manifest.JsonManifest;
+import com.artipie.docker.manifest.Manifest;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.CompletionStage;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Manifest read from uploaded content with bounded memory.
+ * Upload is rejected before reading if declared size exceeds the limit,
+ * and reading stops as soon as received data exceeds it.
+ * Content is hashed while received and collected into single array,
+ * which is allocated by declared size if known.
+ *
+ * @since 0.18
+ */
+final class ManifestBytes {
+
+    /**
+     * Uploaded content.
+     */
+    private final Content content;
+
+    /**
+     * Maximum manifest size in bytes.
+     */
+    private final int limit;
+
+    /**
+     * Ctor.
+     *
+     * @param content Uploaded content.
+     * @param limit Maximum manifest size in bytes.
+     */
+    ManifestBytes(final Content content, final int limit) {
+        this.content = content;
+        this.limit = limit;
+    }
+
+    /**
+     * Read manifest.
+     *
+     * @return Manifest.
+     */
+    CompletionStage<Manifest> manifest() {
+        final CompletionStage<Manifest> res;
+        if (this.content.size().filter(size -> size > this.limit).isPresent()) {
+            res = new FailedCompletionStage<>(new ManifestTooLargeException(this.limit));
+        } else {
+            final int initial = this.content.size().orElse(0L).intValue();
+            res = Flowable.fromPublisher(this.content)
+                .collect(() -> new Buffer(initial, this.limit), Buffer::append)
+                .map(Buffer::manifest)
+                .to(SingleInterop.get());
+        }
+        return res;
+    }
+
+    /**
+     * Growing array of received bytes with running digest.
+     *
+     * @since 0.18
+     */
+    private static final class Buffer {
+
+        /**
+         * Minimal capacity of array allocated when size is unknown.
+         */
+        private static final int MIN = 1024;
+
+        /**
+         * Maximum size in bytes.
+         */
+        private final int limit;
+
+        /**
+         * Running SHA-256 digest.
+         */
+        private final MessageDigest sha;
+
+        /**
+         * Received bytes.
+         */
+        private byte[] bytes;
+
+        /**
+         * Amount of received bytes.
+         */
+        private int length;
+
+        /**
+         * Ctor.
+         *
+         * @param initial Initial capacity.
+         * @param limit Maximum size in bytes.
+         */
+        Buffer(final int initial, final int limit) {
+            this.limit = limit;
+            this.sha = Digests.SHA256.get();
+            this.bytes = new byte[initial];
+        }
+
+        /**
+         * Append received chunk.
+         *
+         * @param chunk Chunk.
+         */
+        void append(final ByteBuffer chunk) {
+            final int size = chunk.remaining();
+            if (size > this.limit - this.length) {
+                throw new ManifestTooLargeException(this.limit);
+            }
+            if (size > this.bytes.length - this.length) {
+                this.bytes = Arrays.copyOf(
+                    this.bytes,
+                    (int) Math.min(
+                        this.limit,
+                        Math.max(
+                            (long) this.length + size,
+                            Math.max(Buffer.MIN, 2L * this.bytes.length)
+                        )
+                    )
+                );
+            }
+            this.sha.update(chunk.duplicate());
+            chunk.duplicate().get(this.bytes, this.length, size);
+            this.length += size;
+        }
+
+        /**
+         * Manifest of received bytes.
+         *
+         * @return Manifest.
+         */
+        Manifest manifest() {
+            final byte[] data;
+            if (this.length == this.bytes.length) {
+                data = this.bytes;
+            } else {
+                data = Arrays.copyOf(this.bytes, this.length);
+            }
+            return new JsonManifest(
+                new Digest.Sha256(Hex.encodeHexString(this.sha.digest())), data
+            );
+        }
+    }
+}
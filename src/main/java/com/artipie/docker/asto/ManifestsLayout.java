@@ -5,6 +5,7 @@
 package com.artipie.docker.asto;
 
 import com.artipie.asto.Key;
+import com.artipie.docker.Digest;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.ref.ManifestRef;
 
@@ -24,6 +25,20 @@ public interface ManifestsLayout {
      */
     Key manifest(RepoName repo, ManifestRef ref);
 
+    /**
+     * Create manifest metadata key, stored next to manifest link by digest.
+     *
+     * @param repo Repository name.
+     * @param digest Manifest digest.
+     * @return Key for storing manifest metadata.
+     */
+    default Key info(final RepoName repo, final Digest digest) {
+        final Key link = this.manifest(repo, new ManifestRef.FromDigest(digest));
+        return link.parent()
+            .<Key>map(parent -> new Key.From(parent, "info"))
+            .orElseGet(() -> new Key.From("info"));
+    }
+
     /**
      * Create tags key.
      *
@@ -31,4 +46,17 @@ public interface ManifestsLayout {
      * @return Key for storing tags.
      */
     Key tags(RepoName repo);
+
+    /**
+     * Create sorted tags index key, stored next to tags.
+     *
+     * @param repo Repository name.
+     * @return Key for storing tags index.
+     */
+    default Key tagsIndex(final RepoName repo) {
+        final Key tags = this.tags(repo);
+        return tags.parent()
+            .<Key>map(parent -> new Key.From(parent, "tags-index"))
+            .orElseGet(() -> new Key.From("tags-index"));
+    }
 }
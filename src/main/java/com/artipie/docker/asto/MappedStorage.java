@@ -0,0 +1,282 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * File system storage which reads large values window by window into direct buffers.
+ * Each window is read by {@link FileChannel#read(ByteBuffer, long)} into new direct
+ * buffer, so blob content is served without copying it into heap buffers.
+ * Windows are not memory-mapped: mapped region is released only when its buffer is
+ * garbage collected and is not limited by JVM, while direct buffers are limited
+ * by max direct memory size and JVM reclaims them when the limit is reached.
+ * Buffer is not reused for the next window, since consumers such as
+ * {@link com.artipie.docker.misc.HashingPool} may still keep it in a queue.
+ * Window size defines how much data is read ahead for each emitted buffer.
+ * Windowed reading pays off only for large files, small ones such as links
+ * and manifests are read by {@link FileStorage} if smaller than threshold.
+ * File attributes are read on given executor, since it blocks.
+ * All other operations are delegated to {@link FileListingStorage}.
+ *
+ * @since 0.18
+ */
+public final class MappedStorage extends Storage.Wrap implements OneLevelListing {
+
+    /**
+     * Default window size, 4 MiB.
+     */
+    private static final int WINDOW = 4 * 1024 * 1024;
+
+    /**
+     * Default minimal size of value read by windows, 1 MiB.
+     */
+    private static final long THRESHOLD = 1024 * 1024;
+
+    /**
+     * File storage.
+     */
+    private final FileListingStorage files;
+
+    /**
+     * Storage root directory.
+     */
+    private final Path dir;
+
+    /**
+     * Size of read window in bytes.
+     */
+    private final long window;
+
+    /**
+     * Minimal size of value read by windows in bytes.
+     */
+    private final long threshold;
+
+    /**
+     * Executor of blocking file system operations.
+     */
+    private final Executor exec;
+
+    /**
+     * Ctor.
+     *
+     * @param dir Storage root directory.
+     */
+    public MappedStorage(final Path dir) {
+        this(dir, MappedStorage.WINDOW);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param dir Storage root directory.
+     * @param window Size of read window in bytes.
+     */
+    public MappedStorage(final Path dir, final long window) {
+        this(dir, window, MappedStorage.THRESHOLD, FileListingStorage.IO);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param dir Storage root directory.
+     * @param window Size of read window in bytes.
+     * @param threshold Minimal size of value read by windows in bytes.
+     * @param exec Executor of blocking file system operations.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public MappedStorage(
+        final Path dir, final long window, final long threshold, final Executor exec
+    ) {
+        this(new FileListingStorage(dir, exec), dir, window, threshold, exec);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param files File storage.
+     * @param dir Storage root directory.
+     * @param window Size of read window in bytes.
+     * @param threshold Minimal size of value read by windows in bytes.
+     * @param exec Executor of blocking file system operations.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private MappedStorage(
+        final FileListingStorage files, final Path dir, final long window,
+        final long threshold, final Executor exec
+    ) {
+        super(files);
+        if (window <= 0 || window > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                String.format("Window size is out of range: %d", window)
+            );
+        }
+        this.files = files;
+        this.dir = dir;
+        this.window = window;
+        this.threshold = threshold;
+        this.exec = exec;
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        final Path file = this.dir.resolve(key.string()).normalize();
+        return CompletableFuture.supplyAsync(() -> this.size(file), this.exec).thenCompose(
+            size -> {
+                final CompletableFuture<Content> res;
+                if (size >= this.threshold) {
+                    res = CompletableFuture.completedFuture(this.windows(file, size));
+                } else {
+                    res = super.value(key);
+                }
+                return res;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Collection<String>> children(final Key prefix) {
+        return this.files.children(prefix);
+    }
+
+    /**
+     * Size of regular file inside storage directory, read by single stat.
+     *
+     * @param file File path.
+     * @return File size, negative if it is not a regular file of this storage.
+     */
+    private long size(final Path file) {
+        long res = -1;
+        if (file.startsWith(this.dir.normalize())) {
+            try {
+                final BasicFileAttributes attrs = Files.readAttributes(
+                    file, BasicFileAttributes.class
+                );
+                if (attrs.isRegularFile()) {
+                    res = attrs.size();
+                }
+            } catch (final IOException ignored) {
+                res = -1;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Content of file read by windows.
+     *
+     * @param file File path.
+     * @param size File size.
+     * @return Content.
+     */
+    private Content windows(final Path file, final long size) {
+        return new Content.From(
+            size,
+            Flowable.generate(
+                () -> new Cursor(FileChannel.open(file, StandardOpenOption.READ)),
+                (Cursor cursor, Emitter<ByteBuffer> emitter) -> {
+                    final long pos = cursor.position();
+                    if (pos < size) {
+                        final ByteBuffer buf = ByteBuffer.allocateDirect(
+                            (int) Math.min(this.window, size - pos)
+                        );
+                        int read = 0;
+                        while (buf.hasRemaining() && read >= 0) {
+                            read = cursor.channel().read(buf, pos + buf.position());
+                        }
+                        buf.flip();
+                        if (buf.hasRemaining()) {
+                            cursor.advance(buf.remaining());
+                            emitter.onNext(buf);
+                        } else {
+                            emitter.onError(
+                                new ArtipieIOException(
+                                    String.format(
+                                        "File %s ended at %d, expected %d bytes", file, pos, size
+                                    )
+                                )
+                            );
+                        }
+                    } else {
+                        emitter.onComplete();
+                    }
+                    return cursor;
+                },
+                cursor -> cursor.channel().close()
+            )
+        );
+    }
+
+    /**
+     * Position of reading opened file.
+     *
+     * @since 0.18
+     */
+    private static final class Cursor {
+
+        /**
+         * File channel.
+         */
+        private final FileChannel chan;
+
+        /**
+         * Position of next window.
+         */
+        private long pos;
+
+        /**
+         * Ctor.
+         *
+         * @param chan File channel.
+         */
+        Cursor(final FileChannel chan) {
+            this.chan = chan;
+        }
+
+        /**
+         * File channel.
+         *
+         * @return Channel.
+         */
+        FileChannel channel() {
+            return this.chan;
+        }
+
+        /**
+         * Position of next window.
+         *
+         * @return Position.
+         */
+        long position() {
+            return this.pos;
+        }
+
+        /**
+         * Move position forward.
+         *
+         * @param len Amount of bytes read.
+         */
+        void advance(final long len) {
+            this.pos += len;
+        }
+    }
+}
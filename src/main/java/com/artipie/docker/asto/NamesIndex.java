@@ -0,0 +1,611 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.UnderLockOperation;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.lock.RetryLock;
+import com.artipie.asto.lock.storage.StorageLock;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent sorted index of names, such as repository tags or repository names.
+ * Names are kept in sorted segments of bounded size, directory of segments holds
+ * first name of each segment, so page of names is read by binary search in directory
+ * and reading only segments the page belongs to.
+ * Index is updated under expiring storage lock, so lock left by crashed node
+ * does not block updates forever, and names already indexed are not updated at all.
+ * Index is built from source names on first use for registries populated
+ * before index was introduced, or after index was dropped by failed update.
+ *
+ * @since 0.18
+ */
+final class NamesIndex {
+
+    /**
+     * Default maximum number of names in segment.
+     */
+    static final int SEGMENT = 1000;
+
+    /**
+     * Time after which lock is considered abandoned.
+     */
+    private static final Duration LOCK_TTL = Duration.ofMinutes(1);
+
+    /**
+     * Scheduler for lock retries.
+     */
+    private static final ScheduledExecutorService RETRIES =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, "docker-names-index");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * Line separator of index files.
+     */
+    private static final String EOL = "\n";
+
+    /**
+     * Storage.
+     */
+    private final Storage asto;
+
+    /**
+     * Index root key.
+     */
+    private final Key root;
+
+    /**
+     * Source of all names to build index from.
+     */
+    private final Supplier<CompletionStage<Collection<String>>> source;
+
+    /**
+     * Maximum number of names in segment.
+     */
+    private final int segment;
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param root Index root key.
+     * @param source Source of all names to build index from.
+     */
+    NamesIndex(
+        final Storage asto, final Key root,
+        final Supplier<CompletionStage<Collection<String>>> source
+    ) {
+        this(asto, root, source, NamesIndex.SEGMENT);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param root Index root key.
+     * @param source Source of all names to build index from.
+     * @param segment Maximum number of names in segment.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    NamesIndex(
+        final Storage asto, final Key root,
+        final Supplier<CompletionStage<Collection<String>>> source, final int segment
+    ) {
+        this.asto = asto;
+        this.root = root;
+        this.source = source;
+        this.segment = segment;
+    }
+
+    /**
+     * Read page of names in lexicographical order.
+     *
+     * @param from From which name to start, exclusive.
+     * @param limit Maximum number of names returned.
+     * @return Names page, empty if index is not built.
+     */
+    CompletionStage<Optional<List<String>>> page(final Optional<String> from, final int limit) {
+        return this.directory().thenCompose(
+            dir -> dir.map(
+                entries -> this.collect(
+                    entries, NamesIndex.start(entries, from), from, limit, new ArrayList<>(0)
+                ).thenApply(Optional::of)
+            ).orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+        );
+    }
+
+    /**
+     * Check name is in the index.
+     *
+     * @param name Name.
+     * @return True if index is built and contains the name.
+     */
+    CompletionStage<Boolean> contains(final String name) {
+        return this.directory().thenCompose(
+            dir -> dir.map(entries -> this.contains(entries, name))
+                .orElseGet(() -> CompletableFuture.completedFuture(false))
+        );
+    }
+
+    /**
+     * Build index from source names if it is not built yet.
+     *
+     * @return Completion of build.
+     */
+    CompletionStage<Void> build() {
+        return this.exclusively(
+            storage -> this.directory().thenCompose(
+                dir -> dir.<CompletionStage<Void>>map(
+                    entries -> CompletableFuture.completedFuture(null)
+                ).orElseGet(this::rebuild)
+            )
+        );
+    }
+
+    /**
+     * Add name to index, index is built if it is not built yet.
+     * Lock is taken only if name is not indexed yet.
+     * Source names are expected to contain added name already.
+     *
+     * @param name Name.
+     * @return Completion of update.
+     */
+    CompletionStage<Void> add(final String name) {
+        return this.contains(name).thenCompose(
+            contains -> {
+                final CompletionStage<Void> res;
+                if (contains) {
+                    res = CompletableFuture.completedFuture(null);
+                } else {
+                    res = this.exclusively(
+                        storage -> this.directory().thenCompose(
+                            dir -> dir.map(entries -> this.insert(entries, name))
+                                .orElseGet(this::rebuild)
+                        )
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Drop directory of index, so index is built again from source names on next use.
+     * Used when index update failed and the index may miss names.
+     *
+     * @return Completion of drop.
+     */
+    CompletionStage<Void> invalidate() {
+        return this.exclusively(
+            storage -> this.asto.exists(this.directoryKey()).thenCompose(
+                exists -> {
+                    final CompletionStage<Void> res;
+                    if (exists) {
+                        res = this.asto.delete(this.directoryKey());
+                    } else {
+                        res = CompletableFuture.completedFuture(null);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Check name is in the segment it belongs to.
+     *
+     * @param entries Directory entries.
+     * @param name Name.
+     * @return True if name is found.
+     */
+    private CompletionStage<Boolean> contains(final List<Entry> entries, final String name) {
+        final CompletionStage<Boolean> res;
+        if (entries.isEmpty()) {
+            res = CompletableFuture.completedFuture(false);
+        } else {
+            res = this.read(entries.get(NamesIndex.start(entries, Optional.of(name))))
+                .thenApply(names -> Collections.binarySearch(names, name) >= 0);
+        }
+        return res;
+    }
+
+    /**
+     * Collect names from segments starting with given one.
+     *
+     * @param entries Directory entries.
+     * @param idx Index of segment to read.
+     * @param from From which name to start, exclusive.
+     * @param limit Maximum number of names returned.
+     * @param acc Collected names.
+     * @return Collected names.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private CompletionStage<List<String>> collect(final List<Entry> entries, final int idx,
+        final Optional<String> from, final int limit, final List<String> acc) {
+        final CompletionStage<List<String>> res;
+        if (idx >= entries.size() || acc.size() >= limit) {
+            res = CompletableFuture.completedFuture(acc);
+        } else {
+            final Optional<String> next = NamesIndex.first(entries, idx + 1);
+            res = this.read(entries.get(idx)).thenCompose(
+                names -> {
+                    names.stream()
+                        .filter(name -> from.map(last -> name.compareTo(last) > 0).orElse(true))
+                        .filter(name -> next.map(bound -> name.compareTo(bound) < 0).orElse(true))
+                        .limit(limit - acc.size())
+                        .forEach(acc::add);
+                    return this.collect(entries, idx + 1, from, limit, acc);
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Insert name into segment it belongs to, splitting segment if it becomes too large.
+     * Segments are written before directory, so concurrent readers never miss names:
+     * names of a segment are bounded by first name of the next one.
+     *
+     * @param entries Directory entries.
+     * @param name Name.
+     * @return Completion of update.
+     */
+    private CompletionStage<Void> insert(final List<Entry> entries, final String name) {
+        final CompletionStage<Void> res;
+        if (entries.isEmpty()) {
+            final Entry created = new Entry(name, UUID.randomUUID().toString());
+            res = this.write(created, Collections.singletonList(name))
+                .thenCompose(nothing -> this.write(Collections.singletonList(created)));
+        } else {
+            final int idx = NamesIndex.start(entries, Optional.of(name));
+            final Entry target = entries.get(idx);
+            res = this.read(target).thenCompose(
+                names -> {
+                    final int pos = Collections.binarySearch(names, name);
+                    final CompletionStage<Void> updated;
+                    if (pos >= 0) {
+                        updated = CompletableFuture.completedFuture(null);
+                    } else {
+                        final List<String> list = new ArrayList<>(names);
+                        list.add(-pos - 1, name);
+                        updated = this.replace(entries, idx, list);
+                    }
+                    return updated;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Replace segment with updated names.
+     *
+     * @param entries Directory entries.
+     * @param idx Index of replaced segment.
+     * @param names Updated segment names.
+     * @return Completion of update.
+     */
+    private CompletionStage<Void> replace(
+        final List<Entry> entries, final int idx, final List<String> names
+    ) {
+        final Entry target = entries.get(idx);
+        final List<Entry> dir = new ArrayList<>(entries);
+        dir.set(idx, new Entry(names.get(0), target.id));
+        final CompletionStage<Void> res;
+        if (names.size() > this.segment) {
+            final int half = names.size() / 2;
+            final List<String> right = names.subList(half, names.size());
+            final Entry split = new Entry(right.get(0), UUID.randomUUID().toString());
+            dir.add(idx + 1, split);
+            res = this.write(split, right)
+                .thenCompose(nothing -> this.write(dir))
+                .thenCompose(nothing -> this.write(target, names.subList(0, half)));
+        } else if (names.get(0).equals(target.first)) {
+            res = this.write(target, names);
+        } else {
+            res = this.write(target, names).thenCompose(nothing -> this.write(dir));
+        }
+        return res;
+    }
+
+    /**
+     * Build index from all source names.
+     *
+     * @return Completion of build.
+     */
+    private CompletionStage<Void> rebuild() {
+        return this.source.get().thenCompose(
+            all -> {
+                final List<String> names = new ArrayList<>(new TreeSet<>(all));
+                final List<Entry> dir = new ArrayList<>(names.size() / this.segment + 1);
+                CompletionStage<Void> res = CompletableFuture.completedFuture(null);
+                for (int pos = 0; pos < names.size(); pos += this.segment) {
+                    final List<String> chunk = names.subList(
+                        pos, Math.min(pos + this.segment, names.size())
+                    );
+                    final Entry entry = new Entry(chunk.get(0), UUID.randomUUID().toString());
+                    dir.add(entry);
+                    res = res.thenCompose(nothing -> this.write(entry, chunk));
+                }
+                return res.thenCompose(nothing -> this.write(dir))
+                    .thenCompose(nothing -> this.prune(dir));
+            }
+        );
+    }
+
+    /**
+     * Remove segments left by index dropped before rebuild.
+     *
+     * @param entries Directory entries.
+     * @return Completion of removal.
+     */
+    private CompletionStage<Void> prune(final List<Entry> entries) {
+        final Collection<String> ids = entries.stream()
+            .map(entry -> entry.id)
+            .collect(Collectors.toSet());
+        return this.asto.list(new Key.From(this.root, "segments")).thenCompose(
+            keys -> CompletableFuture.allOf(
+                keys.stream()
+                    .filter(key -> !ids.contains(new KeyLastPart(key).get()))
+                    .map(this.asto::delete)
+                    .toArray(CompletableFuture[]::new)
+            )
+        );
+    }
+
+    /**
+     * Read directory of segments.
+     *
+     * @return Directory entries, empty if index is not built.
+     */
+    private CompletionStage<Optional<List<Entry>>> directory() {
+        return this.asto.value(this.directoryKey())
+            .thenCompose(pub -> new PublisherAs(pub).asciiString())
+            .handle(
+                (text, err) -> {
+                    final Optional<List<Entry>> res;
+                    if (err == null) {
+                        res = Optional.of(
+                            NamesIndex.lines(text).stream()
+                                .map(Entry::new)
+                                .collect(Collectors.toList())
+                        );
+                    } else if (new NotFound(err).test()) {
+                        res = Optional.empty();
+                    } else {
+                        throw new CompletionException(err);
+                    }
+                    return res;
+                }
+            );
+    }
+
+    /**
+     * Read segment names.
+     *
+     * @param entry Directory entry of segment.
+     * @return Names in lexicographical order.
+     */
+    private CompletionStage<List<String>> read(final Entry entry) {
+        return this.lines(this.key(entry));
+    }
+
+    /**
+     * Write directory of segments.
+     *
+     * @param entries Directory entries.
+     * @return Completion of write.
+     */
+    private CompletionStage<Void> write(final List<Entry> entries) {
+        return this.save(
+            this.directoryKey(),
+            entries.stream().map(Entry::line).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Write segment names.
+     *
+     * @param entry Directory entry of segment.
+     * @param names Names in lexicographical order.
+     * @return Completion of write.
+     */
+    private CompletionStage<Void> write(final Entry entry, final List<String> names) {
+        return this.save(this.key(entry), names);
+    }
+
+    /**
+     * Directory key.
+     *
+     * @return Key.
+     */
+    private Key directoryKey() {
+        return new Key.From(this.root, "directory");
+    }
+
+    /**
+     * Segment key.
+     *
+     * @param entry Directory entry of segment.
+     * @return Key.
+     */
+    private Key key(final Entry entry) {
+        return new Key.From(this.root, "segments", entry.id);
+    }
+
+    /**
+     * Read non-empty lines of index file.
+     *
+     * @param key Index file key.
+     * @return Lines.
+     */
+    private CompletionStage<List<String>> lines(final Key key) {
+        return this.asto.value(key)
+            .thenCompose(pub -> new PublisherAs(pub).asciiString())
+            .thenApply(NamesIndex::lines);
+    }
+
+    /**
+     * Save lines to index file.
+     *
+     * @param key Index file key.
+     * @param lines Lines.
+     * @return Completion of save.
+     */
+    private CompletionStage<Void> save(final Key key, final Collection<String> lines) {
+        return this.asto.save(
+            key,
+            new Content.From(
+                String.join(NamesIndex.EOL, lines).getBytes(StandardCharsets.US_ASCII)
+            )
+        );
+    }
+
+    /**
+     * Perform operation holding index lock.
+     *
+     * @param operation Operation.
+     * @return Completion of operation.
+     */
+    private CompletionStage<Void> exclusively(
+        final Function<Storage, CompletionStage<Void>> operation
+    ) {
+        return new UnderLockOperation<>(
+            new RetryLock(
+                NamesIndex.RETRIES,
+                new StorageLock(this.asto, this.root, Instant.now().plus(NamesIndex.LOCK_TTL))
+            ),
+            operation
+        ).perform(this.asto);
+    }
+
+    /**
+     * Split index file text to non-empty lines.
+     *
+     * @param text Index file text.
+     * @return Lines.
+     */
+    private static List<String> lines(final String text) {
+        return Arrays.stream(text.split(NamesIndex.EOL))
+            .filter(line -> !line.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Find segment which may contain names following given one.
+     *
+     * @param entries Directory entries.
+     * @param from From which name to start, exclusive.
+     * @return Index of last segment starting not after the name, zero if there is no such one.
+     */
+    private static int start(final List<Entry> entries, final Optional<String> from) {
+        final int res;
+        if (from.isPresent()) {
+            final int pos = Collections.binarySearch(
+                entries.stream().map(entry -> entry.first).collect(Collectors.toList()),
+                from.get()
+            );
+            if (pos >= 0) {
+                res = pos;
+            } else {
+                res = Math.max(-pos - 2, 0);
+            }
+        } else {
+            res = 0;
+        }
+        return res;
+    }
+
+    /**
+     * First name of segment.
+     *
+     * @param entries Directory entries.
+     * @param idx Index of segment.
+     * @return First name, empty if there is no such segment.
+     */
+    private static Optional<String> first(final List<Entry> entries, final int idx) {
+        final Optional<String> res;
+        if (idx < entries.size()) {
+            res = Optional.of(entries.get(idx).first);
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Directory entry: first name of segment and segment identifier.
+     *
+     * @since 0.18
+     */
+    private static final class Entry {
+
+        /**
+         * First name of segment.
+         */
+        private final String first;
+
+        /**
+         * Segment identifier.
+         */
+        private final String id;
+
+        /**
+         * Ctor.
+         *
+         * @param line Directory line.
+         */
+        Entry(final String line) {
+            this(line.substring(0, line.indexOf(' ')), line.substring(line.indexOf(' ') + 1));
+        }
+
+        /**
+         * Ctor.
+         *
+         * @param first First name of segment.
+         * @param id Segment identifier.
+         */
+        Entry(final String first, final String id) {
+            this.first = first;
+            this.id = id;
+        }
+
+        /**
+         * Directory line.
+         *
+         * @return Line.
+         */
+        String line() {
+            return String.join(" ", this.first, this.id);
+        }
+    }
+}
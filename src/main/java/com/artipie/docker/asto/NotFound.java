@@ -0,0 +1,44 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.ValueNotFoundException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Check of storage error meaning that value is not found.
+ * Allows to read a value in single storage operation instead of existence check and read.
+ *
+ * @since 0.18
+ */
+final class NotFound {
+
+    /**
+     * Error.
+     */
+    private final Throwable err;
+
+    /**
+     * Ctor.
+     *
+     * @param err Error.
+     */
+    NotFound(final Throwable err) {
+        this.err = err;
+    }
+
+    /**
+     * Check if error means that value is not found in storage.
+     *
+     * @return True if value is missing.
+     */
+    boolean test() {
+        Throwable cause = this.err;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof ValueNotFoundException;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage able to list one level of keys hierarchy cheaply,
+ * such as file system directory read or S3 listing with delimiter.
+ * Storages implementing it are listed level by level instead of listing
+ * all keys recursively when looking for tags and repositories.
+ *
+ * @since 0.18
+ */
+public interface OneLevelListing {
+
+    /**
+     * List names of direct children of the key, both values and sub-trees.
+     *
+     * @param prefix Parent key.
+     * @return Names of children, empty if there are no keys under the prefix.
+     */
+    CompletableFuture<Collection<String>> children(Key prefix);
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiPredicate;
+
+/**
+ * Walk of repositories directories looking for repositories by their children.
+ * Storages supporting {@link OneLevelListing} are walked level by level,
+ * directories of a level are listed with limited concurrency;
+ * other storages are listed recursively once.
+ * Sub-trees starting with underscore are repository data and are not walked into,
+ * since repository name components could not start with it.
+ *
+ * @since 0.18
+ */
+final class RepositoriesWalk {
+
+    /**
+     * Maximum number of directories listed concurrently.
+     */
+    private static final int CONCURRENCY = 16;
+
+    /**
+     * Storage.
+     */
+    private final Storage asto;
+
+    /**
+     * Repositories root key.
+     */
+    private final Key root;
+
+    /**
+     * Ctor.
+     *
+     * @param asto Storage.
+     * @param root Repositories root key.
+     */
+    RepositoriesWalk(final Storage asto, final Key root) {
+        this.asto = asto;
+        this.root = root;
+    }
+
+    /**
+     * Find names of repositories matching the predicate.
+     *
+     * @param matches Predicate of repository name and names of its directory children.
+     * @return Repository names in lexicographical order.
+     */
+    CompletionStage<Collection<String>> names(
+        final BiPredicate<String, Collection<String>> matches
+    ) {
+        final CompletionStage<Collection<String>> res;
+        if (this.asto instanceof OneLevelListing) {
+            res = this.level(Collections.singletonList(this.root), matches, new TreeSet<>());
+        } else {
+            res = this.asto.list(this.root).thenApply(
+                keys -> {
+                    final Set<String> found = new TreeSet<>();
+                    this.children(keys).forEach(
+                        (name, children) -> {
+                            if (matches.test(name, children)) {
+                                found.add(name);
+                            }
+                        }
+                    );
+                    return found;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Check one level of directories and walk into their children.
+     *
+     * @param dirs Directories of current level.
+     * @param matches Predicate of repository name and names of its directory children.
+     * @param found Repository names found so far.
+     * @return Repository names.
+     */
+    private CompletionStage<Collection<String>> level(
+        final List<Key> dirs,
+        final BiPredicate<String, Collection<String>> matches,
+        final Set<String> found
+    ) {
+        final CompletionStage<Collection<String>> res;
+        if (dirs.isEmpty()) {
+            res = CompletableFuture.completedFuture(found);
+        } else {
+            final int skip = this.root.parts().size();
+            res = Flowable.fromIterable(dirs)
+                .flatMapSingle(
+                    dir -> SingleInterop.fromFuture(new DirectChildren(this.asto, dir).names())
+                        .map(children -> new AbstractMap.SimpleImmutableEntry<>(dir, children)),
+                    false,
+                    RepositoriesWalk.CONCURRENCY
+                )
+                .toList()
+                .to(SingleInterop.get())
+                .thenCompose(
+                    listed -> {
+                        final List<Key> next = new ArrayList<>(0);
+                        for (final Map.Entry<Key, Collection<String>> entry : listed) {
+                            final List<String> parts = entry.getKey().parts();
+                            if (parts.size() > skip) {
+                                final String name = String.join(
+                                    "/", parts.subList(skip, parts.size())
+                                );
+                                if (matches.test(name, entry.getValue())) {
+                                    found.add(name);
+                                }
+                            }
+                            for (final String child : entry.getValue()) {
+                                if (!child.startsWith("_")) {
+                                    next.add(new Key.From(entry.getKey(), child));
+                                }
+                            }
+                        }
+                        return this.level(next, matches, found);
+                    }
+                );
+        }
+        return res;
+    }
+
+    /**
+     * Names of directory children by candidate repository name built from listed keys.
+     *
+     * @param keys Keys under repositories root.
+     * @return Children names by repository name.
+     */
+    private Map<String, Set<String>> children(final Collection<Key> keys) {
+        final int skip = this.root.parts().size();
+        final Map<String, Set<String>> res = new TreeMap<>();
+        for (final Key key : keys) {
+            final List<String> parts = key.parts();
+            for (int idx = skip + 1; idx < parts.size(); ++idx) {
+                res.computeIfAbsent(
+                    String.join("/", parts.subList(skip, idx)), name -> new TreeSet<>()
+                ).add(parts.get(idx));
+                if (parts.get(idx).startsWith("_")) {
+                    break;
+                }
+            }
+        }
+        return res;
+    }
+}
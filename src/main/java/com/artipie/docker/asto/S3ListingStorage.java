@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.s3.S3Storage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+
+/**
+ * S3 storage listing direct children of a key by listing objects with {@code /} delimiter,
+ * so objects of nested keys are not transferred.
+ * All other operations are delegated to {@link S3Storage}.
+ *
+ * @since 0.18
+ */
+public final class S3ListingStorage extends Storage.Wrap implements OneLevelListing {
+
+    /**
+     * Key parts delimiter.
+     */
+    private static final String DELIMITER = "/";
+
+    /**
+     * S3 client.
+     */
+    private final S3AsyncClient client;
+
+    /**
+     * Bucket name.
+     */
+    private final String bucket;
+
+    /**
+     * Ctor.
+     *
+     * @param client S3 client.
+     * @param bucket Bucket name.
+     */
+    public S3ListingStorage(final S3AsyncClient client, final String bucket) {
+        this(new S3Storage(client, bucket), client, bucket);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin S3 storage of the bucket.
+     * @param client S3 client.
+     * @param bucket Bucket name.
+     */
+    public S3ListingStorage(
+        final S3Storage origin, final S3AsyncClient client, final String bucket
+    ) {
+        super(origin);
+        this.client = client;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public CompletableFuture<Collection<String>> children(final Key prefix) {
+        final String dir;
+        if (prefix.string().isEmpty()) {
+            dir = "";
+        } else {
+            dir = prefix.string() + S3ListingStorage.DELIMITER;
+        }
+        return this.page(dir, Optional.empty(), new ArrayList<>(0));
+    }
+
+    /**
+     * List page of children and pages following it.
+     *
+     * @param dir Prefix of children keys.
+     * @param token Continuation token, empty for first page.
+     * @param acc Names of children listed so far.
+     * @return Names of children.
+     */
+    private CompletableFuture<Collection<String>> page(
+        final String dir, final Optional<String> token, final Collection<String> acc
+    ) {
+        final ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+            .bucket(this.bucket)
+            .prefix(dir)
+            .delimiter(S3ListingStorage.DELIMITER);
+        token.ifPresent(request::continuationToken);
+        return this.client.listObjectsV2(request.build()).thenCompose(
+            response -> {
+                response.commonPrefixes().forEach(
+                    common -> acc.add(
+                        common.prefix().substring(
+                            dir.length(), common.prefix().length() - 1
+                        )
+                    )
+                );
+                response.contents().forEach(obj -> acc.add(obj.key().substring(dir.length())));
+                final CompletableFuture<Collection<String>> res;
+                if (Boolean.TRUE.equals(response.isTruncated())) {
+                    res = this.page(dir, Optional.of(response.nextContinuationToken()), acc);
+                } else {
+                    res = CompletableFuture.completedFuture(acc);
+                }
+                return res;
+            }
+        );
+    }
+}
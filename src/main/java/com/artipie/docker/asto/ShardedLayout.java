@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.docker.Digest;
+import com.artipie.docker.RepoName;
+import com.artipie.docker.ref.ManifestRef;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Layout storing blobs in directories sharded by several digest prefixes,
+ * e.g. {@code blobs/<alg>/ab/cd/<hex>/data} for depth 2 and width 2.
+ * Blobs stored by origin layout are still found while they are migrated,
+ * see {@link ShardedMigration}, once migration is finished legacy lookup should be
+ * disabled to save storage request on each blob miss.
+ * Other keys are provided by origin layout.
+ *
+ * @since 0.18
+ */
+public final class ShardedLayout implements Layout {
+
+    /**
+     * Maximum total length of prefixes, half of the shortest supported digest.
+     */
+    private static final int MAX_PREFIX = 32;
+
+    /**
+     * Origin layout.
+     */
+    private final Layout origin;
+
+    /**
+     * Amount of nested prefix directories.
+     */
+    private final int depth;
+
+    /**
+     * Amount of hex characters in each prefix directory.
+     */
+    private final int width;
+
+    /**
+     * Look up blobs by origin layout key.
+     */
+    private final boolean migrating;
+
+    /**
+     * Ctor.
+     *
+     * @param depth Amount of nested prefix directories.
+     * @param width Amount of hex characters in each prefix directory.
+     */
+    public ShardedLayout(final int depth, final int width) {
+        this(new DefaultLayout(), depth, width);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin layout.
+     * @param depth Amount of nested prefix directories.
+     * @param width Amount of hex characters in each prefix directory.
+     */
+    public ShardedLayout(final Layout origin, final int depth, final int width) {
+        this(origin, depth, width, true);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin layout.
+     * @param depth Amount of nested prefix directories.
+     * @param width Amount of hex characters in each prefix directory.
+     * @param migrating Look up blobs by origin layout key, false once migration is finished.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public ShardedLayout(
+        final Layout origin, final int depth, final int width, final boolean migrating
+    ) {
+        if (depth < 1 || width < 1 || depth * width > ShardedLayout.MAX_PREFIX) {
+            throw new IllegalArgumentException(
+                String.format("Invalid shard depth %d or width %d", depth, width)
+            );
+        }
+        this.origin = origin;
+        this.depth = depth;
+        this.width = width;
+        this.migrating = migrating;
+    }
+
+    @Override
+    public Key repositories() {
+        return this.origin.repositories();
+    }
+
+    @Override
+    public Key blobs() {
+        return this.origin.blobs();
+    }
+
+    @Override
+    public Key blob(final RepoName repo, final Digest digest) {
+        final String hex = digest.hex();
+        final List<String> parts = new ArrayList<>(this.blobs().parts());
+        parts.add(digest.alg());
+        for (int idx = 0; idx < this.depth; ++idx) {
+            parts.add(hex.substring(idx * this.width, (idx + 1) * this.width));
+        }
+        parts.add(hex);
+        parts.add("data");
+        return new Key.From(parts);
+    }
+
+    @Override
+    public Optional<Key> legacy(final RepoName repo, final Digest digest) {
+        final Optional<Key> res;
+        if (this.migrating) {
+            res = Optional.of(this.origin.blob(repo, digest));
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    @Override
+    public Key link(final RepoName repo, final Digest digest) {
+        return this.origin.link(repo, digest);
+    }
+
+    @Override
+    public Key manifest(final RepoName repo, final ManifestRef ref) {
+        return this.origin.manifest(repo, ref);
+    }
+
+    @Override
+    public Key tags(final RepoName repo) {
+        return this.origin.tags(repo);
+    }
+
+    @Override
+    public Key upload(final RepoName repo, final String uuid) {
+        return this.origin.upload(repo, uuid);
+    }
+
+    @Override
+    public Key uploads(final RepoName repo) {
+        return this.origin.uploads(repo);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.docker.Digest;
+import com.artipie.docker.RepoName;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Online migration of blobs into {@link ShardedLayout}.
+ * Migration is done in two passes: {@link #run()} copies blobs stored by legacy layout
+ * to sharded keys, so readers switch to sharded copy while legacy one is still readable,
+ * and {@link #cleanup()} deletes legacy copies later, when no reader resolved legacy key.
+ * Blob store is walked one two-hex digest prefix at a time, so only keys of single prefix
+ * are kept in memory, and blobs of a prefix are processed with limited concurrency.
+ * Registry could serve requests during migration, since blobs are looked up by
+ * legacy key if they are not found by sharded one.
+ * Only layouts storing {@code sha256} blobs outside of repositories by two-hex prefix
+ * are supported, as {@link DefaultLayout}.
+ *
+ * @since 0.18
+ */
+public final class ShardedMigration {
+
+    /**
+     * Repository name used to get keys of blobs shared by all repositories.
+     */
+    private static final RepoName ANY = new RepoName.Simple("");
+
+    /**
+     * Digest algorithms of migrated blobs.
+     */
+    private static final List<String> ALGORITHMS = Collections.singletonList("sha256");
+
+    /**
+     * Amount of two-hex digest prefixes.
+     */
+    private static final int PREFIXES = 256;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Sharded layout.
+     */
+    private final ShardedLayout layout;
+
+    /**
+     * Maximum number of blobs processed concurrently.
+     */
+    private final int concurrency;
+
+    /**
+     * Blobs metadata cache, deleted legacy copies are invalidated in it.
+     */
+    private final BlobsCache cache;
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Sharded layout.
+     */
+    public ShardedMigration(final Storage storage, final ShardedLayout layout) {
+        this(storage, layout, 8);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Sharded layout.
+     * @param concurrency Maximum number of blobs processed concurrently.
+     */
+    public ShardedMigration(
+        final Storage storage, final ShardedLayout layout, final int concurrency
+    ) {
+        this(storage, layout, concurrency, new BlobsCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Sharded layout.
+     * @param concurrency Maximum number of blobs processed concurrently.
+     * @param cache Blobs metadata cache of the registry.
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public ShardedMigration(
+        final Storage storage, final ShardedLayout layout, final int concurrency,
+        final BlobsCache cache
+    ) {
+        this.storage = storage;
+        this.layout = layout;
+        this.concurrency = concurrency;
+        this.cache = cache;
+    }
+
+    /**
+     * Copy all blobs stored by legacy layout to sharded keys.
+     *
+     * @return Amount of copied blobs.
+     */
+    public CompletionStage<Long> run() {
+        return this.walk(this::copy);
+    }
+
+    /**
+     * Delete legacy copies of blobs already stored by sharded keys.
+     *
+     * @return Amount of deleted legacy copies.
+     */
+    public CompletionStage<Long> cleanup() {
+        return this.walk(this::delete);
+    }
+
+    /**
+     * Apply action to legacy blob keys, one digest prefix at a time.
+     *
+     * @param action Action on legacy key and sharded key, returning true if blob was processed.
+     * @return Amount of processed blobs.
+     */
+    private CompletionStage<Long> walk(
+        final Function<Key, Function<Key, CompletionStage<Boolean>>> action
+    ) {
+        final Key root = this.layout.blobs();
+        return Flowable.fromIterable(ShardedMigration.ALGORITHMS)
+            .concatMap(
+                alg -> Flowable.range(0, ShardedMigration.PREFIXES).map(
+                    idx -> new Key.From(root, alg, String.format("%02x", idx))
+                )
+            )
+            .concatMap(
+                prefix -> SingleInterop.fromFuture(this.storage.list(prefix))
+                    .flattenAsFlowable(keys -> keys)
+                    .flatMapSingle(
+                        key -> SingleInterop.fromFuture(
+                            this.target(root, key)
+                                .map(target -> action.apply(key).apply(target))
+                                .orElseGet(() -> CompletableFuture.completedFuture(false))
+                        ),
+                        false,
+                        this.concurrency
+                    )
+            )
+            .filter(Boolean::booleanValue)
+            .count()
+            .to(SingleInterop.get());
+    }
+
+    /**
+     * Copy blob to sharded key if it is not there yet.
+     *
+     * @param key Legacy blob key.
+     * @return Action on sharded key, returning true if blob was copied.
+     */
+    private Function<Key, CompletionStage<Boolean>> copy(final Key key) {
+        return target -> this.storage.exists(target).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> res;
+                if (exists) {
+                    res = CompletableFuture.completedFuture(false);
+                } else {
+                    res = this.storage.value(key)
+                        .thenCompose(content -> this.storage.save(target, content))
+                        .thenApply(nothing -> true);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Delete legacy blob if it is stored by sharded key.
+     *
+     * @param key Legacy blob key.
+     * @return Action on sharded key, returning true if legacy blob was deleted.
+     */
+    private Function<Key, CompletionStage<Boolean>> delete(final Key key) {
+        return target -> this.storage.exists(target).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> res;
+                if (exists) {
+                    res = this.storage.delete(key).thenApply(
+                        nothing -> {
+                            this.cache.invalidate(key);
+                            return true;
+                        }
+                    );
+                } else {
+                    res = CompletableFuture.completedFuture(false);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Sharded key of blob stored by legacy key.
+     * Legacy key is {@code <root>/<alg>/<two-hex prefix>/<hex>/data},
+     * so migration and cleanup do not depend on {@link ShardedLayout} legacy lookup.
+     *
+     * @param root Blobs root key.
+     * @param key Storage key.
+     * @return Sharded key, empty if key is not legacy blob data key.
+     */
+    private Optional<Key> target(final Key root, final Key key) {
+        return ShardedMigration.digest(root, key).filter(
+            digest -> new Key.From(
+                root, digest.alg(), digest.hex().substring(0, 2), digest.hex(), "data"
+            ).string().equals(key.string())
+        ).map(digest -> this.layout.blob(ShardedMigration.ANY, digest))
+            .filter(target -> !target.string().equals(key.string()));
+    }
+
+    /**
+     * Extract digest from blob data key.
+     *
+     * @param root Blobs root key.
+     * @param key Storage key.
+     * @return Digest, empty if key is not blob data key.
+     */
+    private static Optional<Digest> digest(final Key root, final Key key) {
+        final List<String> parts = key.parts();
+        final int skip = root.parts().size();
+        final Optional<Digest> res;
+        if (parts.size() > skip + 3 && "data".equals(parts.get(parts.size() - 1))
+            && parts.get(parts.size() - 2).length() > 2) {
+            final Digest.FromString digest = new Digest.FromString(
+                String.format("%s:%s", parts.get(skip), parts.get(parts.size() - 2))
+            );
+            if (digest.valid()) {
+                res = Optional.of(digest);
+            } else {
+                res = Optional.empty();
+            }
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.SubStorage;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage of keys under prefix in origin storage able to list one level,
+ * children are listed by origin storage.
+ * All other operations are delegated to {@link SubStorage}.
+ *
+ * @since 0.18
+ */
+public final class SubListingStorage extends Storage.Wrap implements OneLevelListing {
+
+    /**
+     * Keys prefix.
+     */
+    private final Key prefix;
+
+    /**
+     * Origin storage listing.
+     */
+    private final OneLevelListing origin;
+
+    /**
+     * Ctor.
+     *
+     * @param prefix Keys prefix.
+     * @param origin Origin storage.
+     * @param <T> Origin storage type.
+     */
+    public <T extends Storage & OneLevelListing> SubListingStorage(
+        final Key prefix, final T origin
+    ) {
+        super(new SubStorage(prefix, origin));
+        this.prefix = prefix;
+        this.origin = origin;
+    }
+
+    @Override
+    public CompletableFuture<Collection<String>> children(final Key key) {
+        return this.origin.children(new Key.From(this.prefix, key));
+    }
+}
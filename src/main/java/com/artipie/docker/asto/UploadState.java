@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.docker.Digest;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+
+/**
+ * State of upload session stored in single small record.
+ * Contains upload start time, uploaded size, positions of appended chunks
+ * and digest of uploaded data if it is known: data of single chunk is hashed
+ * when the chunk is appended, data of several chunks is hashed while it is copied
+ * to blob store on upload finish.
+ *
+ * @since 0.18
+ */
+final class UploadState {
+
+    /**
+     * Upload start time.
+     */
+    private final Instant time;
+
+    /**
+     * Uploaded size.
+     */
+    private final long length;
+
+    /**
+     * Positions of appended chunks in order.
+     */
+    private final List<Long> positions;
+
+    /**
+     * Digest of uploaded data, empty if it is not known.
+     */
+    private final Optional<Digest> sha;
+
+    /**
+     * Ctor.
+     *
+     * @param time Upload start time.
+     */
+    UploadState(final Instant time) {
+        this(
+            time, 0L, Collections.emptyList(),
+            Optional.of(new Digest.Sha256(new byte[0]))
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param bytes Serialized state.
+     */
+    UploadState(final byte[] bytes) {
+        this(UploadState.json(bytes));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param json State JSON.
+     */
+    private UploadState(final JsonObject json) {
+        this(
+            Instant.parse(json.getString("started")),
+            json.getJsonNumber("size").longValue(),
+            json.getJsonArray("chunks").getValuesAs(JsonNumber.class).stream()
+                .map(JsonNumber::longValue)
+                .collect(Collectors.toList()),
+            Optional.ofNullable(json.getString("digest", null)).map(Digest.FromString::new)
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param time Upload start time.
+     * @param length Uploaded size.
+     * @param positions Positions of appended chunks in order.
+     * @param sha Digest of uploaded data, empty if it is not known.
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private UploadState(
+        final Instant time, final long length, final List<Long> positions,
+        final Optional<Digest> sha
+    ) {
+        this.time = time;
+        this.length = length;
+        this.positions = Collections.unmodifiableList(positions);
+        this.sha = sha;
+    }
+
+    /**
+     * Upload start time.
+     *
+     * @return Time.
+     */
+    Instant started() {
+        return this.time;
+    }
+
+    /**
+     * Uploaded size.
+     *
+     * @return Size in bytes.
+     */
+    long size() {
+        return this.length;
+    }
+
+    /**
+     * Positions of appended chunks in order.
+     *
+     * @return Positions.
+     */
+    List<Long> chunks() {
+        return this.positions;
+    }
+
+    /**
+     * Digest of uploaded data.
+     *
+     * @return Digest, empty if it is not known.
+     */
+    Optional<Digest> digest() {
+        return this.sha;
+    }
+
+    /**
+     * State after chunk is appended.
+     *
+     * @param position Position of appended chunk.
+     * @param size Uploaded size after chunk is appended.
+     * @param digest Digest of uploaded data after chunk is appended, empty if it is not known.
+     * @return New state.
+     */
+    UploadState append(final long position, final long size, final Optional<Digest> digest) {
+        final List<Long> chunks = new ArrayList<>(this.positions);
+        chunks.add(position);
+        return new UploadState(this.time, size, chunks, digest);
+    }
+
+    /**
+     * Serialize state.
+     *
+     * @return Content.
+     */
+    Content content() {
+        final JsonArrayBuilder chunks = Json.createArrayBuilder();
+        this.positions.forEach(chunks::add);
+        final JsonObjectBuilder json = Json.createObjectBuilder()
+            .add("started", this.time.toString())
+            .add("size", this.length)
+            .add("chunks", chunks);
+        this.sha.ifPresent(digest -> json.add("digest", digest.string()));
+        return new Content.From(json.build().toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Read state JSON.
+     *
+     * @param bytes Serialized state.
+     * @return JSON object.
+     */
+    private static JsonObject json(final byte[] bytes) {
+        try (JsonReader reader = Json.createReader(new ByteArrayInputStream(bytes))) {
+            return reader.readObject();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Upload UUID with encoded upload start time.
+ * Start time is stored in the first 48 bits as Unix epoch milliseconds,
+ * the rest of UUID is random as in version 7 UUID layout.
+ * Time of upload start could be obtained from UUID itself without reading storage.
+ *
+ * @since 0.18
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class UploadUuid {
+
+    /**
+     * UUID version with time prefix.
+     */
+    private static final int VERSION = 7;
+
+    /**
+     * UUID string.
+     */
+    private final String value;
+
+    /**
+     * Ctor.
+     *
+     * @param time Upload start time.
+     */
+    UploadUuid(final Instant time) {
+        this(UploadUuid.generate(time));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param value UUID string.
+     */
+    UploadUuid(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * UUID string.
+     *
+     * @return String value.
+     */
+    String value() {
+        return this.value;
+    }
+
+    /**
+     * Upload start time encoded in UUID.
+     *
+     * @return Start time, empty if UUID has no time encoded.
+     */
+    Optional<Instant> started() {
+        Optional<Instant> result;
+        try {
+            final UUID uuid = UUID.fromString(this.value);
+            if (uuid.version() == UploadUuid.VERSION) {
+                result = Optional.of(Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16));
+            } else {
+                result = Optional.empty();
+            }
+        } catch (final IllegalArgumentException ex) {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     * Generate random UUID with time prefix.
+     *
+     * @param time Time to encode.
+     * @return UUID string.
+     */
+    private static String generate(final Instant time) {
+        final UUID random = UUID.randomUUID();
+        return new UUID(
+            time.toEpochMilli() << 16 | UploadUuid.VERSION << 12
+                | random.getMostSignificantBits() & 0x0fff,
+            random.getLeastSignificantBits()
+        ).toString();
+    }
+}
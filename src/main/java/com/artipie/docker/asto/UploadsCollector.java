@@ -0,0 +1,343 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.docker.RepoName;
+import com.jcabi.log.Logger;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Garbage collector of abandoned uploads.
+ * Finds upload sessions started earlier than configured age ago and removes them.
+ * Upload start time is read from upload UUID if encoded there,
+ * otherwise from upload state record, or from {@code started} marker
+ * of uploads started before state record was introduced.
+ * Uploads without both of them are kept, since their age is not known.
+ * <p>
+ * Sweep is rate-limited: at most {@code limit} sessions are removed per sweep,
+ * and sessions are checked and removed with bounded concurrency.
+ * Repositories with uploads are found by {@link RepositoriesWalk} by
+ * {@link UploadsLayout#uploads(RepoName)} key, upload sessions are
+ * listed one repository at a time.
+ *
+ * @since 0.18
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class UploadsCollector implements AutoCloseable {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Storage layout.
+     */
+    private final Layout layout;
+
+    /**
+     * Age of upload after which it is considered abandoned.
+     */
+    private final Duration age;
+
+    /**
+     * Max amount of sessions removed in one sweep.
+     */
+    private final int limit;
+
+    /**
+     * Max amount of sessions processed concurrently.
+     */
+    private final int concurrency;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Amount of reclaimed upload sessions.
+     */
+    private final AtomicLong sessions;
+
+    /**
+     * Amount of reclaimed bytes.
+     */
+    private final AtomicLong reclaimed;
+
+    /**
+     * Sweep scheduler.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Storage layout.
+     * @param age Age of upload after which it is considered abandoned.
+     */
+    public UploadsCollector(final Storage storage, final Layout layout, final Duration age) {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(storage, layout, age, 1000, 8, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param layout Storage layout.
+     * @param age Age of upload after which it is considered abandoned.
+     * @param limit Max amount of sessions removed in one sweep.
+     * @param concurrency Max amount of sessions processed concurrently.
+     * @param clock Clock.
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public UploadsCollector(
+        final Storage storage,
+        final Layout layout,
+        final Duration age,
+        final int limit,
+        final int concurrency,
+        final Clock clock
+    ) {
+        this.storage = storage;
+        this.layout = layout;
+        this.age = age;
+        this.limit = limit;
+        this.concurrency = concurrency;
+        this.clock = clock;
+        this.sessions = new AtomicLong();
+        this.reclaimed = new AtomicLong();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, "docker-uploads-collector");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Start sweeping periodically.
+     * Next sweep starts after given period since previous one is completed.
+     *
+     * @param period Period between sweeps.
+     */
+    public void start(final Duration period) {
+        this.scheduler.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    this.sweep().toCompletableFuture().join();
+                    // @checkstyle IllegalCatchCheck (1 line)
+                } catch (final RuntimeException ex) {
+                    Logger.error(this, "Failed to collect abandoned uploads: %[exception]s", ex);
+                }
+            },
+            period.toMillis(),
+            period.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Remove abandoned uploads once.
+     *
+     * @return Completion of sweep.
+     */
+    public CompletionStage<Void> sweep() {
+        final Instant threshold = this.clock.instant().minus(this.age);
+        return this.repositories().thenCompose(
+            names -> Flowable.fromIterable(names)
+                .map(RepoName.Simple::new)
+                .concatMap(
+                    repo -> SingleInterop.fromFuture(
+                        new DirectChildren(this.storage, this.layout.uploads(repo)).names()
+                    ).flattenAsFlowable(uuids -> uuids).map(uuid -> this.layout.upload(repo, uuid))
+                )
+                .flatMapSingle(
+                    root -> SingleInterop.fromFuture(this.abandoned(root, threshold)),
+                    false,
+                    this.concurrency
+                )
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .take(this.limit)
+                .flatMapSingle(
+                    root -> SingleInterop.fromFuture(this.remove(root)),
+                    false,
+                    this.concurrency
+                )
+                .toList()
+                .to(SingleInterop.get())
+                .thenApply(ignored -> (Void) null)
+        );
+    }
+
+    /**
+     * Amount of upload sessions reclaimed so far.
+     *
+     * @return Sessions count.
+     */
+    public long sessions() {
+        return this.sessions.get();
+    }
+
+    /**
+     * Amount of bytes reclaimed so far.
+     *
+     * @return Bytes count.
+     */
+    public long bytes() {
+        return this.reclaimed.get();
+    }
+
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Names of repositories containing uploads.
+     *
+     * @return Repository names.
+     */
+    private CompletionStage<Collection<String>> repositories() {
+        final Key root = this.layout.repositories();
+        return new RepositoriesWalk(this.storage, root).names(
+            (name, children) -> {
+                final Key uploads = this.layout.uploads(new RepoName.Simple(name));
+                return uploads.parent().map(Key::string)
+                    .filter(new Key.From(root, name).string()::equals)
+                    .isPresent()
+                    && children.contains(new KeyLastPart(uploads).get());
+            }
+        );
+    }
+
+    /**
+     * Check if upload is abandoned.
+     *
+     * @param root Upload root key.
+     * @param threshold Uploads started before this time are abandoned.
+     * @return Upload root key, empty if upload is not abandoned.
+     */
+    private CompletionStage<Optional<Key>> abandoned(final Key root, final Instant threshold) {
+        final Optional<Instant> encoded = new UploadUuid(new KeyLastPart(root).get()).started();
+        final CompletionStage<Optional<Instant>> started;
+        if (encoded.isPresent()) {
+            started = CompletableFuture.completedFuture(encoded);
+        } else {
+            started = this.read(new Key.From(root, "state")).thenCompose(
+                state -> state.map(bytes -> new UploadState(bytes).started())
+                    .<CompletionStage<Optional<Instant>>>map(
+                        time -> CompletableFuture.completedFuture(Optional.of(time))
+                    ).orElseGet(
+                        () -> this.read(new Key.From(root, "started")).thenApply(
+                            marker -> marker.map(
+                                bytes -> Instant.parse(
+                                    new String(bytes, StandardCharsets.US_ASCII).trim()
+                                )
+                            )
+                        )
+                    )
+            );
+        }
+        return started.thenApply(
+            time -> {
+                final Optional<Key> result;
+                if (time.filter(threshold::isAfter).isPresent()) {
+                    result = Optional.of(root);
+                } else {
+                    result = Optional.empty();
+                }
+                return result;
+            }
+        );
+    }
+
+    /**
+     * Read value if it exists.
+     *
+     * @param key Key.
+     * @return Value bytes, empty if value is absent.
+     */
+    private CompletionStage<Optional<byte[]>> read(final Key key) {
+        return this.storage.value(key)
+            .thenCompose(content -> new PublisherAs(content).bytes())
+            .handle(
+                (bytes, err) -> {
+                    final Optional<byte[]> result;
+                    if (err == null) {
+                        result = Optional.of(bytes);
+                    } else if (new NotFound(err).test()) {
+                        result = Optional.empty();
+                    } else {
+                        throw new CompletionException(err);
+                    }
+                    return result;
+                }
+            );
+    }
+
+    /**
+     * Remove upload and count reclaimed space, size of values is counted
+     * if storage reports it.
+     * Failure to remove is logged and does not stop the sweep.
+     *
+     * @param root Upload root key.
+     * @return Completion of removal.
+     */
+    private CompletionStage<Boolean> remove(final Key root) {
+        return this.storage.list(root).thenCompose(
+            keys -> Flowable.fromIterable(keys)
+                .flatMapSingle(
+                    key -> SingleInterop.fromFuture(this.storage.metadata(key)).map(
+                        meta -> Optional.ofNullable(meta.read(Meta.OP_SIZE))
+                            .<Long>flatMap(size -> size.map(Long::longValue))
+                            .orElse(0L)
+                    )
+                )
+                .reduce(0L, Long::sum)
+                .to(SingleInterop.get())
+        ).thenCompose(
+            size -> this.storage.deleteAll(root).thenApply(nothing -> size)
+        ).handle(
+            (size, err) -> {
+                final boolean removed;
+                if (err == null) {
+                    this.sessions.incrementAndGet();
+                    this.reclaimed.addAndGet(size);
+                    removed = true;
+                } else {
+                    Logger.warn(
+                        this, "Failed to remove abandoned upload %s: %[exception]s", root, err
+                    );
+                    removed = false;
+                }
+                return removed;
+            }
+        );
+    }
+}
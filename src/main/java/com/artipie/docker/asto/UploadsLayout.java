@@ -22,4 +22,14 @@ public interface UploadsLayout {
      * @return Key for storing upload.
      */
     Key upload(RepoName repo, String uuid);
+
+    /**
+     * Create root key of repository uploads, parent key of all upload keys.
+     *
+     * @param repo Repository name.
+     * @return Key of repository uploads.
+     */
+    default Key uploads(final RepoName repo) {
+        return this.upload(repo, "uuid").parent().orElse(Key.ROOT);
+    }
 }
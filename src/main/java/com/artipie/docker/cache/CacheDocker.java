@@ -5,10 +5,13 @@
 package com.artipie.docker.cache;
 
 import com.artipie.docker.Catalog;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.misc.JoinedCatalogSource;
+import com.artipie.docker.misc.JoinedRepositories;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
@@ -45,6 +48,11 @@ public final class CacheDocker implements Docker {
         return new CacheRepo(name, this.origin.repo(name), this.cache.repo(name));
     }
 
+    @Override
+    public CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        return new JoinedRepositories(this.cache, this.origin).repositories(digest);
+    }
+
     @Override
     public CompletionStage<Catalog> catalog(final Optional<RepoName> from, final int limit) {
         return new JoinedCatalogSource(from, limit, this.origin, this.cache).catalog();
@@ -5,11 +5,14 @@
 package com.artipie.docker.composite;
 
 import com.artipie.docker.Catalog;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.misc.JoinedCatalogSource;
+import com.artipie.docker.misc.JoinedRepositories;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
@@ -59,6 +62,11 @@ public final class MultiReadDocker implements Docker {
         );
     }
 
+    @Override
+    public CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        return new JoinedRepositories(this.dockers).repositories(digest);
+    }
+
     @Override
     public CompletionStage<Catalog> catalog(final Optional<RepoName> from, final int limit) {
         return new JoinedCatalogSource(this.dockers, from, limit).catalog();
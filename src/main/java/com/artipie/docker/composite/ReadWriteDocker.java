@@ -5,9 +5,12 @@
 package com.artipie.docker.composite;
 
 import com.artipie.docker.Catalog;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
+import com.artipie.docker.misc.JoinedRepositories;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
@@ -48,6 +51,11 @@ public final class ReadWriteDocker implements Docker {
         return new ReadWriteRepo(this.read.repo(name), this.write.repo(name));
     }
 
+    @Override
+    public CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        return new JoinedRepositories(this.read, this.write).repositories(digest);
+    }
+
     @Override
     public CompletionStage<Catalog> catalog(final Optional<RepoName> from, final int limit) {
         return this.read.catalog(from, limit);
@@ -5,10 +5,12 @@
 package com.artipie.docker.composite;
 
 import com.artipie.asto.Content;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Manifests;
 import com.artipie.docker.Tag;
 import com.artipie.docker.Tags;
 import com.artipie.docker.manifest.Manifest;
+import com.artipie.docker.manifest.ManifestInfo;
 import com.artipie.docker.ref.ManifestRef;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
@@ -51,6 +53,16 @@ public final class ReadWriteManifests implements Manifests {
         return this.read.get(ref);
     }
 
+    @Override
+    public CompletionStage<Optional<Digest>> digest(final ManifestRef ref) {
+        return this.read.digest(ref);
+    }
+
+    @Override
+    public CompletionStage<Optional<ManifestInfo>> info(final ManifestRef ref) {
+        return this.read.info(ref);
+    }
+
     @Override
     public CompletionStage<Tags> tags(final Optional<Tag> from, final int limit) {
         return this.read.tags(from, limit);
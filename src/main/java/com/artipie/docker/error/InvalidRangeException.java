@@ -0,0 +1,42 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.error;
+
+import java.util.Optional;
+
+/**
+ * Blob upload chunk range cannot be accepted,
+ * either because it does not overlap with the current progress or it is invalid.
+ * See <a href="https://docs.docker.com/registry/spec/api/#upload-blob">Upload Blob</a>.
+ *
+ * @since 0.18
+ */
+@SuppressWarnings("serial")
+public final class InvalidRangeException extends RuntimeException implements DockerError {
+
+    /**
+     * Ctor.
+     *
+     * @param details Error details.
+     */
+    public InvalidRangeException(final String details) {
+        super(details);
+    }
+
+    @Override
+    public String code() {
+        return "BLOB_UPLOAD_INVALID";
+    }
+
+    @Override
+    public String message() {
+        return "blob upload invalid";
+    }
+
+    @Override
+    public Optional<String> detail() {
+        return Optional.ofNullable(this.getMessage());
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.error;
+
+import java.util.Optional;
+
+/**
+ * Manifest upload exceeds maximum allowed manifest size.
+ * See <a href="https://docs.docker.com/registry/spec/api/#put-manifest">Put Manifest</a>.
+ *
+ * @since 0.18
+ */
+@SuppressWarnings("serial")
+public final class ManifestTooLargeException extends RuntimeException implements DockerError {
+
+    /**
+     * Ctor.
+     *
+     * @param limit Maximum manifest size in bytes.
+     */
+    public ManifestTooLargeException(final long limit) {
+        super(String.format("Manifest size exceeds limit of %d bytes", limit));
+    }
+
+    @Override
+    public String code() {
+        return "MANIFEST_INVALID";
+    }
+
+    @Override
+    public String message() {
+        return "manifest too large";
+    }
+
+    @Override
+    public Optional<String> detail() {
+        return Optional.ofNullable(this.getMessage());
+    }
+}
@@ -5,6 +5,7 @@
 package com.artipie.docker.http;
 
 import com.artipie.asto.Content;
+import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.RepoName;
@@ -84,25 +85,44 @@ final class BlobEntity {
             return new AsyncResponse(
                 this.docker.repo(request.name()).layers().get(digest).thenApply(
                     found -> found.<Response>map(
-                        blob -> new AsyncResponse(
-                            blob.content().thenCompose(
-                                content -> content.size()
-                                    .<CompletionStage<Long>>map(CompletableFuture::completedFuture)
-                                    .orElseGet(blob::size)
-                                    .thenApply(
-                                        size -> new RsWithBody(
-                                            new BaseResponse(digest),
-                                            new Content.From(size, content)
-                                        )
-                                    )
-                            )
-                        )
+                        blob -> {
+                            final Response rsp;
+                            if (new IfNoneMatch(headers).matches(blob.digest())) {
+                                rsp = new NotModifiedResponse(blob.digest());
+                            } else {
+                                rsp = new AsyncResponse(Get.whole(blob));
+                            }
+                            return rsp;
+                        }
                     ).orElseGet(
                         () -> new ErrorsResponse(RsStatus.NOT_FOUND, new BlobUnknownError(digest))
                     )
                 )
             );
         }
+
+        /**
+         * Respond with whole blob content.
+         * {@code Range} header is ignored as permitted by RFC 7233: partial content
+         * cannot be sent until http library has {@code 206} status, since
+         * {@link com.artipie.http.Connection} accepts only {@link RsStatus} values.
+         *
+         * @param blob Blob.
+         * @return Response.
+         */
+        private static CompletionStage<Response> whole(final Blob blob) {
+            return blob.content().thenCompose(
+                content -> content.size()
+                    .<CompletionStage<Long>>map(CompletableFuture::completedFuture)
+                    .orElseGet(blob::size)
+                    .thenApply(
+                        size -> new RsWithBody(
+                            new BaseResponse(blob.digest()),
+                            new Content.From(size, content)
+                        )
+                    )
+            );
+        }
     }
 
     /**
@@ -175,6 +195,7 @@ final class BlobEntity {
                 new RsWithHeaders(
                     new RsWithStatus(RsStatus.OK),
                     new DigestHeader(digest),
+                    new EtagHeader(digest),
                     new ContentType("application/octet-stream")
                 )
             );
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.http;
+
+import com.artipie.docker.error.InvalidRangeException;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RqHeaders;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-Range header of blob upload chunk.
+ * See <a href="https://docs.docker.com/registry/spec/api/#upload-blob">Upload Blob</a>.
+ * Value is expected in {@code <start>-<end>} form where end is inclusive,
+ * {@code bytes} unit prefix and total size suffix are tolerated.
+ *
+ * @since 0.18
+ */
+public final class ContentRangeHeader extends Header.Wrap {
+
+    /**
+     * Header name.
+     */
+    public static final String NAME = "Content-Range";
+
+    /**
+     * Header value pattern.
+     */
+    private static final Pattern VALUE = Pattern.compile(
+        "^(bytes )?(?<start>\\d+)-(?<end>\\d+)(/.*)?$"
+    );
+
+    /**
+     * Ctor.
+     *
+     * @param start Position of the first byte.
+     * @param end Position of the last byte, inclusive.
+     */
+    public ContentRangeHeader(final long start, final long end) {
+        this(String.format("%d-%d", start, end));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param headers Headers to extract header from.
+     */
+    public ContentRangeHeader(final Iterable<Map.Entry<String, String>> headers) {
+        this(new RqHeaders.Single(headers, ContentRangeHeader.NAME).asString());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param value Header value.
+     */
+    private ContentRangeHeader(final String value) {
+        super(new Header(ContentRangeHeader.NAME, value));
+    }
+
+    /**
+     * Position of the first byte.
+     *
+     * @return Position.
+     */
+    public long start() {
+        return Long.parseLong(this.matcher().group("start"));
+    }
+
+    /**
+     * Position of the last byte, inclusive.
+     *
+     * @return Position.
+     */
+    public long end() {
+        return Long.parseLong(this.matcher().group("end"));
+    }
+
+    /**
+     * Match header value.
+     *
+     * @return Matcher.
+     */
+    private Matcher matcher() {
+        final Matcher matcher = ContentRangeHeader.VALUE.matcher(this.getValue().trim());
+        if (!matcher.matches()) {
+            throw new InvalidRangeException(
+                String.format("Invalid Content-Range: %s", this.getValue())
+            );
+        }
+        return matcher;
+    }
+}
@@ -5,6 +5,7 @@
 package com.artipie.docker.http;
 
 import com.artipie.docker.Docker;
+import com.artipie.docker.misc.HashingPool;
 import com.artipie.http.Slice;
 import com.artipie.http.auth.AuthScheme;
 import com.artipie.http.auth.Authentication;
@@ -54,8 +55,24 @@ public final class DockerSlice extends Slice.Wrap {
      * @param perms Access permissions.
      * @param auth Authentication scheme.
      */
-    @SuppressWarnings("PMD.ExcessiveMethodLength")
     public DockerSlice(final Docker docker, final Permissions perms, final AuthScheme auth) {
+        this(docker, perms, auth, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param docker Docker repository.
+     * @param perms Access permissions.
+     * @param auth Authentication scheme.
+     * @param pool Hashing pool for blobs uploaded in single request.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    @SuppressWarnings("PMD.ExcessiveMethodLength")
+    public DockerSlice(
+        final Docker docker, final Permissions perms, final AuthScheme auth,
+        final HashingPool pool
+    ) {
         super(
             new ErrorHandlingSlice(
                 new SliceRoute(
@@ -115,7 +132,7 @@ public final class DockerSlice extends Slice.Wrap {
                             new RtRule.ByPath(UploadEntity.PATH),
                             ByMethodsRule.Standard.POST
                         ),
-                        auth(new UploadEntity.Post(docker), perms, auth)
+                        auth(new UploadEntity.Post(docker, perms, auth, pool), perms, auth)
                     ),
                     new RtRulePath(
                         new RtRule.All(
@@ -6,6 +6,8 @@ package com.artipie.docker.http;
 
 import com.artipie.asto.FailedCompletionStage;
 import com.artipie.docker.error.DockerError;
+import com.artipie.docker.error.InvalidRangeException;
+import com.artipie.docker.error.ManifestTooLargeException;
 import com.artipie.docker.error.UnsupportedError;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
@@ -88,6 +90,16 @@ final class ErrorHandlingSlice implements Slice {
      */
     @SuppressWarnings("PMD.OnlyOneReturn")
     private static Optional<Response> handle(final Throwable throwable) {
+        if (throwable instanceof InvalidRangeException) {
+            return Optional.of(
+                new ErrorsResponse(RsStatus.BAD_RANGE, (DockerError) throwable)
+            );
+        }
+        if (throwable instanceof ManifestTooLargeException) {
+            return Optional.of(
+                new ErrorsResponse(RsStatus.PAYLOAD_TOO_LARGE, (DockerError) throwable)
+            );
+        }
         if (throwable instanceof DockerError) {
             return Optional.of(
                 new ErrorsResponse(RsStatus.BAD_REQUEST, (DockerError) throwable)
@@ -0,0 +1,27 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.http;
+
+import com.artipie.docker.Digest;
+import com.artipie.http.headers.Header;
+
+/**
+ * ETag header of blob or manifest.
+ * Blobs and manifests are content addressable, so strong entity tag is built from digest.
+ * See <a href="https://www.rfc-editor.org/rfc/rfc7232#section-2.3">ETag</a>.
+ *
+ * @since 0.18
+ */
+final class EtagHeader extends Header.Wrap {
+
+    /**
+     * Ctor.
+     *
+     * @param digest Blob or manifest digest.
+     */
+    EtagHeader(final Digest digest) {
+        super(new Header("ETag", String.format("\"%s\"", digest.string())));
+    }
+}
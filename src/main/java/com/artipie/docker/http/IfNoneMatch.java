@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.http;
+
+import com.artipie.docker.Digest;
+import com.artipie.http.rq.RqHeaders;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * If-None-Match precondition of conditional GET request.
+ * See <a href="https://www.rfc-editor.org/rfc/rfc7232#section-3.2">If-None-Match</a>.
+ *
+ * @since 0.18
+ */
+final class IfNoneMatch {
+
+    /**
+     * Header values.
+     */
+    private final List<String> values;
+
+    /**
+     * Ctor.
+     *
+     * @param headers Request headers.
+     */
+    IfNoneMatch(final Iterable<Map.Entry<String, String>> headers) {
+        this.values = new RqHeaders(headers, "If-None-Match");
+    }
+
+    /**
+     * Check if precondition is present in request.
+     *
+     * @return True if request is conditional.
+     */
+    boolean present() {
+        return !this.values.isEmpty();
+    }
+
+    /**
+     * Check if entity with given digest matches any of entity tags,
+     * so that it is not modified for the client.
+     * Weak comparison is used as specified for this precondition.
+     *
+     * @param digest Entity digest.
+     * @return True if entity tag matches.
+     */
+    boolean matches(final Digest digest) {
+        final String expected = String.format("\"%s\"", digest.string());
+        return this.values.stream()
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .map(String::trim)
+            .map(tag -> tag.replaceFirst("^W/", ""))
+            .anyMatch(tag -> "*".equals(tag) || expected.equals(tag));
+    }
+}
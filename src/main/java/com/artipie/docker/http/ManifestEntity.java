@@ -6,9 +6,11 @@ package com.artipie.docker.http;
 
 import com.artipie.asto.Content;
 import com.artipie.docker.Docker;
+import com.artipie.docker.Manifests;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.error.ManifestError;
 import com.artipie.docker.manifest.Manifest;
+import com.artipie.docker.manifest.ManifestInfo;
 import com.artipie.docker.misc.RqByRegex;
 import com.artipie.docker.ref.ManifestRef;
 import com.artipie.http.Response;
@@ -21,6 +23,7 @@ import com.artipie.http.headers.Accept;
 import com.artipie.http.headers.ContentLength;
 import com.artipie.http.headers.ContentType;
 import com.artipie.http.headers.Location;
+import com.artipie.http.rq.RqHeaders;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithBody;
 import com.artipie.http.rs.RsWithHeaders;
@@ -29,6 +32,7 @@ import com.artipie.http.rs.StandardRs;
 import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import org.reactivestreams.Publisher;
 
@@ -88,8 +92,8 @@ final class ManifestEntity {
             final Request request = new Request(line);
             final ManifestRef ref = request.reference();
             return new AsyncResponse(
-                this.docker.repo(request.name()).manifests().get(ref).thenApply(
-                    manifest -> manifest.<Response>map(
+                this.docker.repo(request.name()).manifests().info(ref).thenApply(
+                    info -> info.<Response>map(
                         found -> new RsWithHeaders(
                             new BaseResponse(
                                 found.convert(new HashSet<>(new Accept(headers).values()))
@@ -139,8 +143,48 @@ final class ManifestEntity {
             final Request request = new Request(line);
             final RepoName name = request.name();
             final ManifestRef ref = request.reference();
+            final Manifests manifests = this.docker.repo(name).manifests();
+            final IfNoneMatch condition = new IfNoneMatch(headers);
+            final Response rsp;
+            if (condition.present()) {
+                rsp = new AsyncResponse(
+                    manifests.digest(ref).thenApply(
+                        digest -> digest.<Response>map(
+                            found -> {
+                                final Response res;
+                                if (condition.matches(found)) {
+                                    res = new NotModifiedResponse(found);
+                                } else {
+                                    res = Get.content(manifests, ref, headers);
+                                }
+                                return res;
+                            }
+                        ).orElseGet(
+                            () -> new ErrorsResponse(RsStatus.NOT_FOUND, new ManifestError(ref))
+                        )
+                    )
+                );
+            } else {
+                rsp = Get.content(manifests, ref, headers);
+            }
+            return rsp;
+        }
+
+        /**
+         * Respond with manifest content.
+         *
+         * @param manifests Repository manifests.
+         * @param ref Manifest reference.
+         * @param headers Request headers.
+         * @return Response.
+         */
+        private static Response content(
+            final Manifests manifests,
+            final ManifestRef ref,
+            final Iterable<Map.Entry<String, String>> headers
+        ) {
             return new AsyncResponse(
-                this.docker.repo(name).manifests().get(ref).thenApply(
+                manifests.get(ref).thenApply(
                     manifest -> manifest.<Response>map(
                         found -> {
                             final Manifest mnf = found.convert(
@@ -192,8 +236,13 @@ final class ManifestEntity {
             final Request request = new Request(line);
             final RepoName name = request.name();
             final ManifestRef ref = request.reference();
+            final Optional<Long> size = new RqHeaders(headers, ContentLength.NAME).stream()
+                .findFirst()
+                .map(String::trim)
+                .filter(len -> len.matches("\\d{1,18}"))
+                .map(Long::parseLong);
             return new AsyncResponse(
-                this.docker.repo(name).manifests().put(ref, new Content.From(body)).thenApply(
+                this.docker.repo(name).manifests().put(ref, new Content.From(size, body)).thenApply(
                     manifest -> new RsWithHeaders(
                         new RsWithStatus(RsStatus.CREATED),
                         new Location(
@@ -340,11 +389,21 @@ final class ManifestEntity {
          * @param mnf Manifest
          */
         BaseResponse(final Manifest mnf) {
+            this(new ManifestInfo(mnf));
+        }
+
+        /**
+         * Ctor.
+         *
+         * @param info Manifest metadata.
+         */
+        BaseResponse(final ManifestInfo info) {
             super(
                 new RsWithHeaders(
                     StandardRs.EMPTY,
-                    new ContentType(String.join(",", mnf.mediaTypes())),
-                    new DigestHeader(mnf.digest())
+                    new ContentType(String.join(",", info.mediaTypes())),
+                    new DigestHeader(info.digest()),
+                    new EtagHeader(info.digest())
                 )
             );
         }
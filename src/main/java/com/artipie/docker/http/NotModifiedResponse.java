@@ -0,0 +1,34 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.http;
+
+import com.artipie.docker.Digest;
+import com.artipie.http.Response;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+
+/**
+ * Response to conditional GET request for blob or manifest which client already has.
+ *
+ * @since 0.18
+ */
+final class NotModifiedResponse extends Response.Wrap {
+
+    /**
+     * Ctor.
+     *
+     * @param digest Blob or manifest digest.
+     */
+    NotModifiedResponse(final Digest digest) {
+        super(
+            new RsWithHeaders(
+                new RsWithStatus(RsStatus.NOT_MODIFIED),
+                new DigestHeader(digest),
+                new EtagHeader(digest)
+            )
+        );
+    }
+}
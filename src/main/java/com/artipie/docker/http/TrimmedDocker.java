@@ -5,11 +5,13 @@
 package com.artipie.docker.http;
 
 import com.artipie.docker.Catalog;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.misc.CatalogPage;
 import com.artipie.docker.misc.ParsedCatalog;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.regex.Matcher;
@@ -59,6 +61,16 @@ public final class TrimmedDocker implements Docker {
         ).thenApply(names -> new CatalogPage(names, from, limit));
     }
 
+    @Override
+    public CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        return this.origin.repositories(digest).thenApply(
+            names -> names.stream()
+                .map(name -> String.format("%s/%s", this.prefix, name.value()))
+                .<RepoName>map(RepoName.Valid::new)
+                .collect(Collectors.toList())
+        );
+    }
+
     /**
      * Trim prefix from start of original name.
      *
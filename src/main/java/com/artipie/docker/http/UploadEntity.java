@@ -4,26 +4,34 @@
  */
 package com.artipie.docker.http;
 
+import com.artipie.asto.Content;
+import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Upload;
+import com.artipie.docker.asto.CheckedBlobSource;
 import com.artipie.docker.error.UploadUnknownError;
+import com.artipie.docker.misc.HashingPool;
 import com.artipie.docker.misc.RqByRegex;
 import com.artipie.http.Connection;
 import com.artipie.http.Response;
 import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.auth.AuthScheme;
+import com.artipie.http.auth.Permissions;
 import com.artipie.http.headers.ContentLength;
 import com.artipie.http.headers.Header;
 import com.artipie.http.headers.Location;
 import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
 import com.artipie.http.rq.RqParams;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithHeaders;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.slice.ContentWithSize;
 import java.nio.ByteBuffer;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -73,13 +81,47 @@ public final class UploadEntity {
          */
         private final Docker docker;
 
+        /**
+         * Access permissions.
+         */
+        private final Permissions perms;
+
+        /**
+         * Authentication scheme.
+         */
+        private final AuthScheme auth;
+
+        /**
+         * Hashing pool for blobs uploaded in single request.
+         */
+        private final HashingPool pool;
+
         /**
          * Ctor.
          *
          * @param docker Docker repository.
          */
         Post(final Docker docker) {
+            this(docker, Permissions.FREE, AuthScheme.NONE, new HashingPool());
+        }
+
+        /**
+         * Ctor.
+         *
+         * @param docker Docker repository.
+         * @param perms Access permissions, used to find mount source.
+         * @param auth Authentication scheme, used to find mount source.
+         * @param pool Hashing pool for blobs uploaded in single request.
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Post(
+            final Docker docker, final Permissions perms, final AuthScheme auth,
+            final HashingPool pool
+        ) {
             this.docker = docker;
+            this.perms = perms;
+            this.auth = auth;
+            this.pool = pool;
         }
 
         @Override
@@ -97,30 +139,79 @@ public final class UploadEntity {
             final RepoName target = request.name();
             final Optional<Digest> mount = request.mount();
             final Optional<RepoName> from = request.from();
+            final Optional<Digest> digest = request.monolithic();
             final Response response;
-            if (mount.isPresent() && from.isPresent()) {
-                response = this.mount(mount.get(), from.get(), target);
+            if (mount.isPresent()) {
+                response = this.mount(mount.get(), from, target, line, headers);
+            } else if (digest.isPresent()) {
+                response = this.upload(target, digest.get(), headers, body);
             } else {
                 response = this.startUpload(target);
             }
             return response;
         }
 
+        /**
+         * Uploads blob in single request without starting upload session.
+         * See <a href="https://docs.docker.com/registry/spec/api/#monolithic-upload">Monolithic Upload</a>.
+         *
+         * @param name Repository name.
+         * @param digest Blob digest.
+         * @param headers Request headers.
+         * @param body Blob content.
+         * @return HTTP response.
+         * @checkstyle ParameterNumberCheck (7 lines)
+         */
+        private Response upload(
+            final RepoName name,
+            final Digest digest,
+            final Iterable<Map.Entry<String, String>> headers,
+            final Publisher<ByteBuffer> body
+        ) {
+            return new AsyncResponse(
+                this.docker.repo(name).layers().put(
+                    new CheckedBlobSource(new ContentWithSize(body, headers), digest, this.pool)
+                ).thenApply(
+                    blob -> new BlobCreatedResponse(name, digest)
+                )
+            );
+        }
+
         /**
          * Mounts specified blob from source repository to target repository.
+         * If blob is not found in source repository or source is not specified,
+         * blob is looked up in repositories containing it which caller can pull from.
+         * Upload is started if blob is not found.
          *
          * @param digest Blob digest.
          * @param source Source repository name.
          * @param target Target repository name.
+         * @param line Request line.
+         * @param headers Request headers.
          * @return HTTP response.
+         * @checkstyle ParameterNumberCheck (8 lines)
          */
         private Response mount(
             final Digest digest,
-            final RepoName source,
-            final RepoName target
+            final Optional<RepoName> source,
+            final RepoName target,
+            final String line,
+            final Iterable<Map.Entry<String, String>> headers
         ) {
             return new AsyncResponse(
-                this.docker.repo(source).layers().get(digest).thenCompose(
+                source.map(name -> this.docker.repo(name).layers().get(digest)).orElseGet(
+                    () -> CompletableFuture.completedFuture(Optional.empty())
+                ).thenCompose(
+                    found -> {
+                        final CompletionStage<Optional<Blob>> blob;
+                        if (found.isPresent()) {
+                            blob = CompletableFuture.completedFuture(found);
+                        } else {
+                            blob = this.indexed(digest, line, headers);
+                        }
+                        return blob;
+                    }
+                ).thenCompose(
                     opt -> opt.map(
                         src -> this.docker.repo(target).layers().mount(src)
                             .<Response>thenApply(
@@ -133,6 +224,64 @@ public final class UploadEntity {
             );
         }
 
+        /**
+         * Find blob in repositories containing it which caller can pull from.
+         *
+         * @param digest Blob digest.
+         * @param line Request line.
+         * @param headers Request headers.
+         * @return Blob if found.
+         */
+        private CompletionStage<Optional<Blob>> indexed(
+            final Digest digest,
+            final String line,
+            final Iterable<Map.Entry<String, String>> headers
+        ) {
+            return this.auth.authenticate(headers, line).thenCompose(
+                result -> result.user().map(
+                    user -> this.docker.repositories(digest).thenCompose(
+                        names -> this.first(
+                            names.stream().filter(
+                                name -> this.perms.allowed(
+                                    user, new Scope.Repository.Pull(name).string()
+                                )
+                            ).iterator(),
+                            digest
+                        )
+                    )
+                ).orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()))
+            );
+        }
+
+        /**
+         * Find blob in first repository containing it.
+         *
+         * @param names Repository names.
+         * @param digest Blob digest.
+         * @return Blob if found.
+         */
+        private CompletionStage<Optional<Blob>> first(
+            final Iterator<RepoName> names, final Digest digest
+        ) {
+            final CompletionStage<Optional<Blob>> result;
+            if (names.hasNext()) {
+                result = this.docker.repo(names.next()).layers().get(digest).thenCompose(
+                    found -> {
+                        final CompletionStage<Optional<Blob>> blob;
+                        if (found.isPresent()) {
+                            blob = CompletableFuture.completedFuture(found);
+                        } else {
+                            blob = this.first(names, digest);
+                        }
+                        return blob;
+                    }
+                );
+            } else {
+                result = CompletableFuture.completedFuture(Optional.empty());
+            }
+            return result;
+        }
+
         /**
          * Starts new upload in specified repository.
          *
@@ -187,7 +336,7 @@ public final class UploadEntity {
                 this.docker.repo(name).uploads().get(uuid).thenApply(
                     found -> found.<Response>map(
                         upload -> new AsyncResponse(
-                            upload.append(new ContentWithSize(body, headers)).thenApply(
+                            Patch.append(upload, headers, body).thenApply(
                                 offset -> new StatusResponse(name, uuid, offset)
                             )
                         )
@@ -197,6 +346,34 @@ public final class UploadEntity {
                 )
             );
         }
+
+        /**
+         * Appends request body to upload.
+         * If {@code Content-Range} header is present, chunk is appended at specified position,
+         * so chunks could be uploaded out of order.
+         *
+         * @param upload Upload.
+         * @param headers Request headers.
+         * @param body Request body.
+         * @return Offset after appending chunk.
+         */
+        private static CompletionStage<Long> append(
+            final Upload upload,
+            final Iterable<Map.Entry<String, String>> headers,
+            final Publisher<ByteBuffer> body
+        ) {
+            final CompletionStage<Long> result;
+            if (new RqHeaders(headers, ContentRangeHeader.NAME).isEmpty()) {
+                result = upload.append(new ContentWithSize(body, headers));
+            } else {
+                final ContentRangeHeader range = new ContentRangeHeader(headers);
+                result = upload.append(
+                    range.start(),
+                    new Content.From(Optional.of(range.end() - range.start() + 1), body)
+                );
+            }
+            return result;
+        }
     }
 
     /**
@@ -359,6 +536,15 @@ public final class UploadEntity {
             );
         }
 
+        /**
+         * Get "digest" query parameter of monolithic upload.
+         *
+         * @return Digest, empty if parameter does not present in query.
+         */
+        Optional<Digest> monolithic() {
+            return this.params().value("digest").map(Digest.FromString::new);
+        }
+
         /**
          * Get "mount" query parameter.
          *
@@ -10,24 +10,28 @@ import com.artipie.docker.error.InvalidManifestException;
 import java.io.ByteArrayInputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.json.Json;
-import javax.json.JsonObject;
-import javax.json.JsonReader;
-import javax.json.JsonString;
-import javax.json.JsonValue;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
 
 /**
  * Image manifest in JSON format.
+ * JSON is parsed once on first access by streaming parser extracting only fields used
+ * by registry, parsed fields are immutable and shared between threads.
  *
  * @since 0.2
  */
-@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.ArrayIsStoredDirectly"})
 public final class JsonManifest implements Manifest {
 
     /**
@@ -40,22 +44,29 @@ public final class JsonManifest implements Manifest {
      */
     private final byte[] source;
 
+    /**
+     * Parsed manifest fields.
+     */
+    private final AtomicReference<Fields> parsed;
+
     /**
      * Ctor.
+     * Source bytes are not copied and should not be modified after the call.
      *
      * @param dgst Manifest digest.
      * @param source JSON bytes.
      */
     public JsonManifest(final Digest dgst, final byte[] source) {
         this.dgst = dgst;
-        this.source = Arrays.copyOf(source, source.length);
+        this.source = source;
+        this.parsed = new AtomicReference<>();
     }
 
     @Override
     public Set<String> mediaTypes() {
         return Collections.unmodifiableSet(
             Arrays.asList(
-                Optional.ofNullable(this.json().getString("mediaType", null))
+                Optional.ofNullable(this.fields().media)
                     .orElseThrow(
                         () -> new InvalidManifestException(
                             "Required field `mediaType` is absent"
@@ -67,32 +78,30 @@ public final class JsonManifest implements Manifest {
 
     @Override
     public Manifest convert(final Set<? extends String> options) {
-        if (!options.contains("*/*")) {
-            final Set<String> types = this.mediaTypes();
-            if (types.stream().noneMatch(type -> options.contains(type))) {
-                throw new IllegalArgumentException(
-                    String.format(
-                        "Cannot convert from '%s' to any of '%s'",
-                        String.join(",", types), options
-                    )
-                );
-            }
-        }
+        new ManifestInfo(this).convert(options);
         return this;
     }
 
     @Override
     public Digest config() {
-        return new Digest.FromString(this.json().getJsonObject("config").getString("digest"));
+        return new Digest.FromString(
+            Optional.ofNullable(this.fields().config).orElseThrow(
+                () -> new InvalidManifestException("Required field `config.digest` is absent")
+            )
+        );
     }
 
     @Override
     public Collection<Layer> layers() {
-        return Optional.ofNullable(this.json().getJsonArray("layers")).orElseThrow(
-            () -> new InvalidManifestException("Required field `layers` is absent")
-        ).getValuesAs(JsonValue::asJsonObject).stream()
-            .map(JsonLayer::new)
-            .collect(Collectors.toList());
+        final Fields json = this.fields();
+        if (json.digests == null) {
+            throw new InvalidManifestException("Required field `layers` is absent");
+        }
+        final List<Layer> layers = new ArrayList<>(json.digests.length);
+        for (int idx = 0; idx < json.digests.length; ++idx) {
+            layers.add(new JsonLayer(json.digests[idx], json.urls[idx]));
+        }
+        return layers;
     }
 
     @Override
@@ -111,13 +120,194 @@ public final class JsonManifest implements Manifest {
     }
 
     /**
-     * Read manifest content as JSON object.
+     * Read manifest fields, parsing JSON on first call.
      *
-     * @return JSON object.
+     * @return Manifest fields.
      */
-    private JsonObject json() {
-        try (JsonReader reader = Json.createReader(new ByteArrayInputStream(this.source))) {
-            return reader.readObject();
+    private Fields fields() {
+        Fields json = this.parsed.get();
+        if (json == null) {
+            json = new Fields(this.source);
+            if (!this.parsed.compareAndSet(null, json)) {
+                json = this.parsed.get();
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Manifest fields required for validation and conversion.
+     * Fields are extracted by streaming JSON parser without building object tree,
+     * other values are skipped.
+     *
+     * @since 0.18
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private static final class Fields {
+
+        /**
+         * Media type, null if absent.
+         */
+        private final String media;
+
+        /**
+         * Config digest, null if absent.
+         */
+        private final String config;
+
+        /**
+         * Layer digests, null if layers are absent.
+         */
+        private final String[] digests;
+
+        /**
+         * Layer URLs in the same order as digests.
+         */
+        private final String[][] urls;
+
+        /**
+         * Ctor.
+         *
+         * @param source JSON bytes.
+         * @checkstyle CyclomaticComplexityCheck (40 lines)
+         */
+        Fields(final byte[] source) {
+            String mtype = null;
+            String cfg = null;
+            List<String> dgsts = null;
+            List<String[]> locations = null;
+            try (JsonParser parser = Json.createParser(new ByteArrayInputStream(source))) {
+                Fields.expect(parser, Event.START_OBJECT);
+                for (Event event = parser.next(); event == Event.KEY_NAME; event = parser.next()) {
+                    final String name = parser.getString();
+                    final Event value = parser.next();
+                    if ("mediaType".equals(name) && value == Event.VALUE_STRING) {
+                        mtype = parser.getString();
+                    } else if ("config".equals(name) && value == Event.START_OBJECT) {
+                        cfg = Fields.digest(parser);
+                    } else if ("layers".equals(name) && value == Event.START_ARRAY) {
+                        dgsts = new ArrayList<>(0);
+                        locations = new ArrayList<>(0);
+                        Fields.layers(parser, dgsts, locations);
+                    } else {
+                        Fields.skip(parser, value);
+                    }
+                }
+            }
+            this.media = mtype;
+            this.config = cfg;
+            if (dgsts == null) {
+                this.digests = null;
+                this.urls = null;
+            } else {
+                this.digests = dgsts.toArray(new String[0]);
+                this.urls = locations.toArray(new String[0][]);
+            }
+        }
+
+        /**
+         * Read layers array.
+         *
+         * @param parser Parser positioned at array start.
+         * @param digests Layer digests to fill.
+         * @param urls Layer URLs to fill.
+         */
+        private static void layers(
+            final JsonParser parser, final List<String> digests, final List<String[]> urls
+        ) {
+            for (Event event = parser.next(); event != Event.END_ARRAY; event = parser.next()) {
+                if (event == Event.START_OBJECT) {
+                    String digest = null;
+                    List<String> locations = Collections.emptyList();
+                    for (Event key = parser.next(); key == Event.KEY_NAME; key = parser.next()) {
+                        final String name = parser.getString();
+                        final Event value = parser.next();
+                        if ("digest".equals(name) && value == Event.VALUE_STRING) {
+                            digest = parser.getString();
+                        } else if ("urls".equals(name) && value == Event.START_ARRAY) {
+                            locations = Fields.strings(parser);
+                        } else {
+                            Fields.skip(parser, value);
+                        }
+                    }
+                    digests.add(digest);
+                    urls.add(locations.toArray(new String[0]));
+                } else {
+                    Fields.skip(parser, event);
+                }
+            }
+        }
+
+        /**
+         * Read digest field of object.
+         *
+         * @param parser Parser positioned at object start.
+         * @return Digest, null if absent.
+         */
+        private static String digest(final JsonParser parser) {
+            String digest = null;
+            for (Event event = parser.next(); event == Event.KEY_NAME; event = parser.next()) {
+                final String name = parser.getString();
+                final Event value = parser.next();
+                if ("digest".equals(name) && value == Event.VALUE_STRING) {
+                    digest = parser.getString();
+                } else {
+                    Fields.skip(parser, value);
+                }
+            }
+            return digest;
+        }
+
+        /**
+         * Read strings array.
+         *
+         * @param parser Parser positioned at array start.
+         * @return Strings.
+         */
+        private static List<String> strings(final JsonParser parser) {
+            final List<String> list = new ArrayList<>(1);
+            for (Event event = parser.next(); event != Event.END_ARRAY; event = parser.next()) {
+                if (event == Event.VALUE_STRING) {
+                    list.add(parser.getString());
+                } else {
+                    Fields.skip(parser, event);
+                }
+            }
+            return list;
+        }
+
+        /**
+         * Skip value which started with given event.
+         *
+         * @param parser Parser.
+         * @param event Value start event.
+         */
+        private static void skip(final JsonParser parser, final Event event) {
+            if (event == Event.START_OBJECT || event == Event.START_ARRAY) {
+                int depth = 1;
+                while (depth > 0) {
+                    final Event next = parser.next();
+                    if (next == Event.START_OBJECT || next == Event.START_ARRAY) {
+                        depth += 1;
+                    } else if (next == Event.END_OBJECT || next == Event.END_ARRAY) {
+                        depth -= 1;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Check next parser event.
+         *
+         * @param parser Parser.
+         * @param expected Expected event.
+         */
+        private static void expect(final JsonParser parser, final Event expected) {
+            if (!parser.hasNext() || parser.next() != expected) {
+                throw new JsonException(
+                    String.format("Manifest is not a JSON object, %s expected", expected)
+                );
+            }
         }
     }
 
@@ -129,39 +319,48 @@ public final class JsonManifest implements Manifest {
     private static final class JsonLayer implements Layer {
 
         /**
-         * JSON object.
+         * Layer digest, null if absent.
+         */
+        private final String dgst;
+
+        /**
+         * Layer URLs.
          */
-        private final JsonObject json;
+        private final String[] locations;
 
         /**
          * Ctor.
          *
-         * @param json JSON object.
+         * @param dgst Layer digest, null if absent.
+         * @param locations Layer URLs.
          */
-        private JsonLayer(final JsonObject json) {
-            this.json = json;
+        private JsonLayer(final String dgst, final String[] locations) {
+            this.dgst = dgst;
+            this.locations = locations;
         }
 
         @Override
         public Digest digest() {
-            return new Digest.FromString(this.json.getString("digest"));
+            return new Digest.FromString(
+                Optional.ofNullable(this.dgst).orElseThrow(
+                    () -> new InvalidManifestException("Required field `digest` of layer is absent")
+                )
+            );
         }
 
         @Override
         public Collection<URL> urls() {
-            return Optional.ofNullable(this.json.getJsonArray("urls")).map(
-                urls -> urls.getValuesAs(JsonString.class).stream()
-                    .map(
-                        str -> {
-                            try {
-                                return new URL(str.getString());
-                            } catch (final MalformedURLException ex) {
-                                throw new IllegalArgumentException(ex);
-                            }
+            return Arrays.stream(this.locations)
+                .map(
+                    str -> {
+                        try {
+                            return new URL(str);
+                        } catch (final MalformedURLException ex) {
+                            throw new IllegalArgumentException(ex);
                         }
-                    )
-                    .collect(Collectors.toList())
-            ).orElseGet(Collections::emptyList);
+                    }
+                )
+                .collect(Collectors.toList());
         }
     }
 }
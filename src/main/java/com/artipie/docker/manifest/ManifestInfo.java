@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.manifest;
+
+import com.artipie.docker.Digest;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Manifest metadata: digest, media types and size,
+ * enough to answer HEAD requests without reading manifest content.
+ *
+ * @since 0.18
+ */
+public final class ManifestInfo {
+
+    /**
+     * Manifest digest.
+     */
+    private final Digest dgst;
+
+    /**
+     * Manifest media types.
+     */
+    private final Set<String> types;
+
+    /**
+     * Manifest size.
+     */
+    private final long length;
+
+    /**
+     * Ctor.
+     *
+     * @param manifest Manifest.
+     */
+    public ManifestInfo(final Manifest manifest) {
+        this(manifest.digest(), manifest.mediaTypes(), manifest.size());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param digest Manifest digest.
+     * @param types Manifest media types.
+     * @param size Manifest size.
+     */
+    public ManifestInfo(final Digest digest, final Set<String> types, final long size) {
+        this.dgst = digest;
+        this.types = Collections.unmodifiableSet(new LinkedHashSet<>(types));
+        this.length = size;
+    }
+
+    /**
+     * Manifest digest.
+     *
+     * @return Digest.
+     */
+    public Digest digest() {
+        return this.dgst;
+    }
+
+    /**
+     * Manifest media types.
+     *
+     * @return Media types.
+     */
+    public Set<String> mediaTypes() {
+        return this.types;
+    }
+
+    /**
+     * Manifest size.
+     *
+     * @return Size in bytes.
+     */
+    public long size() {
+        return this.length;
+    }
+
+    /**
+     * Check manifest could be served as one of types.
+     *
+     * @param options Types the manifest may be converted to.
+     * @return This metadata.
+     * @throws IllegalArgumentException If manifest could not be converted.
+     */
+    public ManifestInfo convert(final Set<? extends String> options) {
+        if (!options.contains("*/*")
+            && this.types.stream().noneMatch(type -> options.contains(type))) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Cannot convert from '%s' to any of '%s'",
+                    String.join(",", this.types), options
+                )
+            );
+        }
+        return this;
+    }
+}
@@ -4,7 +4,6 @@
  */
 package com.artipie.docker.misc;
 
-import com.artipie.asto.Remaining;
 import com.artipie.asto.ext.Digests;
 import com.artipie.docker.Digest;
 import io.reactivex.Flowable;
@@ -28,6 +27,11 @@ public final class DigestedFlowable extends Flowable<ByteBuffer> {
      */
     private final Publisher<ByteBuffer> origin;
 
+    /**
+     * Hashing pool.
+     */
+    private final HashingPool pool;
+
     /**
      * Calculated digest.
      */
@@ -39,19 +43,25 @@ public final class DigestedFlowable extends Flowable<ByteBuffer> {
      * @param origin Origin publisher.
      */
     public DigestedFlowable(final Publisher<ByteBuffer> origin) {
+        this(origin, new HashingPool());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin publisher.
+     * @param pool Hashing pool.
+     */
+    public DigestedFlowable(final Publisher<ByteBuffer> origin, final HashingPool pool) {
         this.dig = new AtomicReference<>();
         this.origin = origin;
+        this.pool = pool;
     }
 
     @Override
     public void subscribeActual(final Subscriber<? super ByteBuffer> subscriber) {
         final MessageDigest sha = Digests.SHA256.get();
-        Flowable.fromPublisher(this.origin).map(
-            buf -> {
-                sha.update(new Remaining(buf, true).bytes());
-                return buf;
-            }
-        ).doOnComplete(
+        this.pool.hash(this.origin, buf -> DigestedFlowable.update(sha, buf)).doOnComplete(
             () -> this.dig.set(
                 new Digest.Sha256(Hex.encodeHexString(sha.digest()))
             )
@@ -66,4 +76,18 @@ public final class DigestedFlowable extends Flowable<ByteBuffer> {
     public Digest digest() {
         return Objects.requireNonNull(this.dig.get(), "Digest is not yet calculated.");
     }
+
+    /**
+     * Update digest with remaining buffer bytes without copying them to new array.
+     * Buffer is consumed by digest and then it's position is restored,
+     * so the same buffer is passed downstream unchanged.
+     *
+     * @param sha Message digest.
+     * @param buf Buffer.
+     */
+    static void update(final MessageDigest sha, final ByteBuffer buf) {
+        final int pos = buf.position();
+        sha.update(buf);
+        buf.position(pos);
+    }
 }
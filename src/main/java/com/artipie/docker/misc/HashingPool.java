@@ -0,0 +1,230 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.misc;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+
+/**
+ * Place where digests of passing data are calculated.
+ * By default data is hashed inline on the thread emitting it, usually HTTP event loop.
+ * With executor buffers are handed off to the executor through bounded queue
+ * and hashed there, buffers order and backpressure are preserved,
+ * downstream receives buffers on executor thread after they are hashed.
+ * <p>
+ * Pool collects metrics: current and max amount of buffers waiting for hashing,
+ * total time buffers spent waiting in the queue and total time spent on hashing.
+ * Buffers dropped from the queue on cancel or error are not counted as waiting.
+ *
+ * @since 0.18
+ */
+public final class HashingPool {
+
+    /**
+     * Default amount of buffers handed off to executor per stream.
+     */
+    private static final int BUFFER = 16;
+
+    /**
+     * Executor scheduler, empty for inline hashing.
+     */
+    private final Optional<Scheduler> scheduler;
+
+    /**
+     * Amount of buffers handed off to executor per stream.
+     */
+    private final int buffer;
+
+    /**
+     * Amount of buffers waiting for hashing.
+     */
+    private final AtomicLong waiting;
+
+    /**
+     * Max amount of buffers waiting for hashing.
+     */
+    private final AtomicLong peak;
+
+    /**
+     * Amount of hashed buffers.
+     */
+    private final AtomicLong hashed;
+
+    /**
+     * Total hashing time in nanoseconds.
+     */
+    private final AtomicLong nanos;
+
+    /**
+     * Total time buffers waited in the queue in nanoseconds.
+     */
+    private final AtomicLong waited;
+
+    /**
+     * Ctor for inline hashing.
+     */
+    public HashingPool() {
+        this(Optional.empty(), HashingPool.BUFFER);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param executor Executor to hash data on.
+     */
+    public HashingPool(final Executor executor) {
+        this(executor, HashingPool.BUFFER);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param executor Executor to hash data on.
+     * @param buffer Amount of buffers handed off to executor per stream.
+     */
+    public HashingPool(final Executor executor, final int buffer) {
+        this(Optional.of(Schedulers.from(executor)), buffer);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param scheduler Executor scheduler, empty for inline hashing.
+     * @param buffer Amount of buffers handed off to executor per stream.
+     */
+    private HashingPool(final Optional<Scheduler> scheduler, final int buffer) {
+        this.scheduler = scheduler;
+        this.buffer = buffer;
+        this.waiting = new AtomicLong();
+        this.peak = new AtomicLong();
+        this.hashed = new AtomicLong();
+        this.nanos = new AtomicLong();
+        this.waited = new AtomicLong();
+    }
+
+    /**
+     * Pass data through digest.
+     * Digest consumer should not change buffer position.
+     *
+     * @param origin Data.
+     * @param digest Digest consumer.
+     * @return Data that is passed to digest when it's requested.
+     */
+    public Flowable<ByteBuffer> hash(
+        final Publisher<ByteBuffer> origin, final Consumer<ByteBuffer> digest
+    ) {
+        final Flowable<ByteBuffer> flow = Flowable.fromPublisher(origin);
+        final Flowable<ByteBuffer> result;
+        if (this.scheduler.isPresent()) {
+            result = Flowable.defer(
+                () -> {
+                    final Queue<Long> queued = new ConcurrentLinkedQueue<>();
+                    return flow.doOnNext(
+                        buf -> {
+                            queued.add(System.nanoTime());
+                            final long depth = this.waiting.incrementAndGet();
+                            this.peak.accumulateAndGet(depth, Math::max);
+                        }
+                    ).observeOn(this.scheduler.get(), false, this.buffer).doOnNext(
+                        buf -> {
+                            final Long since = queued.poll();
+                            if (since != null) {
+                                this.waiting.decrementAndGet();
+                                this.waited.addAndGet(System.nanoTime() - since);
+                            }
+                            this.update(digest, buf);
+                        }
+                    ).doOnTerminate(() -> this.drop(queued))
+                        .doOnCancel(() -> this.drop(queued));
+                }
+            );
+        } else {
+            result = flow.doOnNext(buf -> this.update(digest, buf));
+        }
+        return result;
+    }
+
+    /**
+     * Amount of buffers handed off to executor and waiting for hashing.
+     *
+     * @return Queue depth.
+     */
+    public long depth() {
+        return this.waiting.get();
+    }
+
+    /**
+     * Max amount of buffers waiting for hashing observed so far.
+     *
+     * @return Max queue depth.
+     */
+    public long maxDepth() {
+        return this.peak.get();
+    }
+
+    /**
+     * Amount of hashed buffers.
+     *
+     * @return Buffers count.
+     */
+    public long buffers() {
+        return this.hashed.get();
+    }
+
+    /**
+     * Total time spent on hashing.
+     *
+     * @return Time in nanoseconds.
+     */
+    public long hashingTime() {
+        return this.nanos.get();
+    }
+
+    /**
+     * Total time buffers waited in the queue before hashing.
+     *
+     * @return Time in nanoseconds.
+     */
+    public long waitTime() {
+        return this.waited.get();
+    }
+
+    /**
+     * Stop counting buffers of the stream which are still queued,
+     * they are dropped on cancel or error.
+     *
+     * @param queued Enqueue times of waiting buffers.
+     */
+    private void drop(final Queue<Long> queued) {
+        while (queued.poll() != null) {
+            this.waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Update digest with buffer and measure time spent.
+     *
+     * @param digest Digest consumer.
+     * @param buf Buffer.
+     * @throws Exception If digest fails.
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    private void update(final Consumer<ByteBuffer> digest, final ByteBuffer buf)
+        throws Exception {
+        final long start = System.nanoTime();
+        digest.accept(buf);
+        this.nanos.addAndGet(System.nanoTime() - start);
+        this.hashed.incrementAndGet();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.misc;
+
+import com.artipie.docker.Digest;
+import com.artipie.docker.Docker;
+import com.artipie.docker.RepoName;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Names of repositories containing blob loaded from multiple registries.
+ * Registry failing to load names is skipped.
+ *
+ * @since 0.18
+ */
+public final class JoinedRepositories {
+
+    /**
+     * Registries to load names from.
+     */
+    private final List<Docker> dockers;
+
+    /**
+     * Ctor.
+     *
+     * @param dockers Registries to load names from.
+     */
+    public JoinedRepositories(final Docker... dockers) {
+        this(Arrays.asList(dockers));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param dockers Registries to load names from.
+     */
+    public JoinedRepositories(final List<Docker> dockers) {
+        this.dockers = dockers;
+    }
+
+    /**
+     * Load repository names containing blob in order of registries without duplicates.
+     *
+     * @param digest Blob digest.
+     * @return Repository names.
+     */
+    public CompletionStage<Collection<RepoName>> repositories(final Digest digest) {
+        final List<CompletableFuture<Collection<RepoName>>> all = this.dockers.stream().map(
+            docker -> docker.repositories(digest)
+                .toCompletableFuture()
+                .exceptionally(err -> Collections.emptyList())
+        ).collect(Collectors.toList());
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).thenApply(
+            nothing -> all.stream()
+                .flatMap(stage -> stage.join().stream())
+                .collect(
+                    Collectors.toMap(
+                        RepoName::value, name -> name, (first, second) -> first,
+                        LinkedHashMap::new
+                    )
+                ).values()
+        );
+    }
+}
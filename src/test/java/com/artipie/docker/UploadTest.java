@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker;
+
+import com.artipie.asto.Content;
+import com.artipie.docker.error.InvalidRangeException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Upload} default methods.
+ *
+ * @since 0.18
+ */
+final class UploadTest {
+
+    @Test
+    void shouldAppendFirstChunkByPosition() {
+        final CountingUpload upload = new CountingUpload();
+        MatcherAssert.assertThat(
+            upload.append(0, new Content.From(new byte[]{1, 2, 3}))
+                .toCompletableFuture().join(),
+            new IsEqual<>(2L)
+        );
+    }
+
+    @Test
+    void shouldFailToAppendChunkAtPosition() {
+        final CountingUpload upload = new CountingUpload();
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> upload.append(3, new Content.From(new byte[]{1}))
+                .toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Chunk range is invalid",
+            err.getCause(),
+            new IsInstanceOf(InvalidRangeException.class)
+        );
+        MatcherAssert.assertThat(
+            "Chunk is not appended",
+            upload.offset().toCompletableFuture().join(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    /**
+     * Upload counting appended bytes.
+     *
+     * @since 0.18
+     */
+    private static final class CountingUpload implements Upload {
+
+        /**
+         * Uploaded size.
+         */
+        private final AtomicLong size = new AtomicLong();
+
+        @Override
+        public String uuid() {
+            return "counting";
+        }
+
+        @Override
+        public CompletableFuture<Void> start(final Instant time) {
+            return CompletableFuture.allOf();
+        }
+
+        @Override
+        public CompletionStage<Void> cancel() {
+            return CompletableFuture.allOf();
+        }
+
+        @Override
+        public CompletionStage<Long> append(final Content chunk) {
+            return CompletableFuture.completedFuture(
+                this.size.addAndGet(chunk.size().get()) - 1
+            );
+        }
+
+        @Override
+        public CompletionStage<Long> offset() {
+            return CompletableFuture.completedFuture(Math.max(this.size.get() - 1, 0));
+        }
+
+        @Override
+        public CompletionStage<Blob> putTo(final Layers layers, final Digest digest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -8,9 +8,11 @@ import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Meta;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.docker.Digest;
 import com.artipie.docker.RepoName;
+import com.artipie.docker.fake.CountingStorage;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -44,6 +46,74 @@ final class AstoBlobsTest {
         MatcherAssert.assertThat(storage.saves, new IsEqual<>(1));
     }
 
+    @Test
+    void shouldReadBlobMetadataFromCache() {
+        final byte[] bytes = new byte[]{0x00, 0x01, 0x02, 0x03};
+        final Digest digest = new Digest.Sha256(
+            "054edec1d0211f624fed0cbca9d4f9400b0e491c43742af2c5b0abebf0c990d8"
+        );
+        final CountingStorage storage = new CountingStorage(new InMemoryStorage());
+        final BlobsCache cache = new BlobsCache();
+        new AstoBlobs(storage, new DefaultLayout(), new RepoName.Simple("one"), cache)
+            .put(new TrustedBlobSource(new Content.From(bytes), digest))
+            .toCompletableFuture().join();
+        storage.reset();
+        final AstoBlobs blobs = new AstoBlobs(
+            storage, new DefaultLayout(), new RepoName.Simple("two"), cache
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                "Blob size is read",
+                blobs.blob(digest).toCompletableFuture().join()
+                    .orElseThrow(IllegalStateException::new)
+                    .size().toCompletableFuture().join(),
+                new IsEqual<>((long) bytes.length)
+            );
+        }
+        MatcherAssert.assertThat(
+            "Metadata is read from storage once",
+            storage.total(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void shouldReadSmallBlobContentFromHotCache() {
+        final byte[] bytes = new byte[]{0x00, 0x01, 0x02, 0x03};
+        final Digest digest = new Digest.Sha256(
+            "054edec1d0211f624fed0cbca9d4f9400b0e491c43742af2c5b0abebf0c990d8"
+        );
+        final CountingStorage storage = new CountingStorage(new InMemoryStorage());
+        final HotBlobs hot = new HotBlobs(1024L, 16);
+        final AstoBlobs blobs = new AstoBlobs(
+            storage, new DefaultLayout(), new RepoName.Simple("any"), new BlobsCache(16, hot)
+        );
+        blobs.put(new TrustedBlobSource(new Content.From(bytes), digest))
+            .toCompletableFuture().join();
+        storage.reset();
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                "Blob content is read",
+                new PublisherAs(
+                    blobs.blob(digest).toCompletableFuture().join()
+                        .orElseThrow(IllegalStateException::new)
+                        .content().toCompletableFuture().join()
+                ).bytes().toCompletableFuture().join(),
+                new IsEqual<>(bytes)
+            );
+        }
+        MatcherAssert.assertThat(
+            "Content is read from storage once",
+            storage.count("value"),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "Cache hit is counted",
+            hot.hits(),
+            new IsEqual<>(1L)
+        );
+    }
+
     /**
      * Fake storage that stores everything in memory and counts save operations.
      *
@@ -10,13 +10,25 @@ import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.Blob;
 import com.artipie.docker.Catalog;
+import com.artipie.docker.Repo;
 import com.artipie.docker.RepoName;
+import com.artipie.docker.Tag;
+import com.artipie.docker.error.ManifestTooLargeException;
+import com.artipie.docker.misc.HashingPool;
+import com.artipie.docker.ref.ManifestRef;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test case for {@link AstoDocker}.
@@ -35,11 +47,11 @@ final class AstoDockerTest {
     void shouldReadCatalogs() {
         final Storage storage = new InMemoryStorage();
         storage.save(
-            new Key.From("repositories/my-alpine/something"),
+            new Key.From("repositories/my-alpine/_manifests/tags/1/current/link"),
             new Content.From("1".getBytes())
         ).toCompletableFuture().join();
         storage.save(
-            new Key.From("repositories/test/foo/bar"),
+            new Key.From("repositories/test/_manifests/revisions/sha256/123/link"),
             new Content.From("2".getBytes())
         ).toCompletableFuture().join();
         final Catalog catalog = new AstoDocker(storage)
@@ -50,4 +62,91 @@ final class AstoDockerTest {
             new IsEqual<>("{\"repositories\":[\"my-alpine\",\"test\"]}")
         );
     }
+
+    @Test
+    void shouldReadCatalogsListingOneLevel(@TempDir final Path dir) {
+        final Storage storage = new MappedStorage(dir);
+        storage.save(
+            new Key.From("repositories/my-alpine/_manifests/tags/1/current/link"),
+            new Content.From("1".getBytes())
+        ).toCompletableFuture().join();
+        storage.save(
+            new Key.From("repositories/library/test/_manifests/revisions/sha256/123/link"),
+            new Content.From("2".getBytes())
+        ).toCompletableFuture().join();
+        storage.save(
+            new Key.From("repositories/library/_uploads/123/data"),
+            new Content.From("3".getBytes())
+        ).toCompletableFuture().join();
+        final Catalog catalog = new AstoDocker(storage)
+            .catalog(Optional.empty(), Integer.MAX_VALUE)
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new PublisherAs(catalog.json()).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("{\"repositories\":[\"library/test\",\"my-alpine\"]}")
+        );
+    }
+
+    @Test
+    void shouldAddRepositoryToCatalogOnManifestPush() {
+        final AstoDocker docker = new AstoDocker(new InMemoryStorage());
+        docker.catalog(Optional.empty(), Integer.MAX_VALUE).toCompletableFuture().join();
+        final Repo repo = docker.repo(new RepoName.Valid("my/alpine"));
+        final Blob config = repo.layers().put(new TrustedBlobSource("config".getBytes()))
+            .toCompletableFuture().join();
+        repo.manifests().put(
+            new ManifestRef.FromTag(new Tag.Valid("1")),
+            new Content.From(
+                String.format(
+                    "{\"config\":{\"digest\":\"%s\"},\"layers\":[],\"mediaType\":\"my-type\"}",
+                    config.digest().string()
+                ).getBytes()
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                docker.catalog(Optional.empty(), Integer.MAX_VALUE)
+                    .toCompletableFuture().join().json()
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("{\"repositories\":[\"my/alpine\"]}")
+        );
+    }
+
+    @Test
+    void shouldApplySettingsToRepositories() {
+        final Repo repo = new AstoDocker(
+            new InMemoryStorage(), new DefaultLayout(),
+            new AstoSettings(new HashingPool(), new BlobsCache(), new LinksCache(), 16, 1)
+        ).repo(new RepoName.Valid("my/alpine"));
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> repo.manifests().put(
+                new ManifestRef.FromTag(new Tag.Valid("1")),
+                new Content.From("{\"layers\":[],\"mediaType\":\"my-type\"}".getBytes())
+            ).toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            err.getCause(),
+            new IsInstanceOf(ManifestTooLargeException.class)
+        );
+    }
+
+    @Test
+    void shouldFindRepositoriesContainingBlob() {
+        final AstoDocker docker = new AstoDocker(new InMemoryStorage());
+        final Blob blob = docker.repo(new RepoName.Valid("my/alpine")).layers()
+            .put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        docker.repo(new RepoName.Valid("other")).layers().mount(blob)
+            .toCompletableFuture().join();
+        docker.repo(new RepoName.Valid("unrelated")).layers()
+            .put(new TrustedBlobSource("other layer".getBytes()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            docker.repositories(blob.digest()).toCompletableFuture().join().stream()
+                .map(RepoName::value)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("my/alpine", "other")
+        );
+    }
 }
@@ -5,12 +5,14 @@
 package com.artipie.docker.asto;
 
 import com.artipie.asto.Content;
+import com.artipie.asto.Key;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.docker.Blob;
 import com.artipie.docker.Digest;
 import com.artipie.docker.Layers;
 import com.artipie.docker.RepoName;
+import com.artipie.docker.fake.CountingStorage;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -114,9 +116,123 @@ final class AstoLayersTest {
         );
     }
 
+    @Test
+    void shouldMountStoredBlobWithoutStorageOperations() {
+        final CountingStorage storage = new CountingStorage(new InMemoryStorage());
+        final Layers other = new AstoLayers(
+            new AstoBlobs(storage, new DefaultLayout(), new RepoName.Simple("other"))
+        );
+        final Blob blob = other.put(new TrustedBlobSource("shared".getBytes()))
+            .toCompletableFuture().join();
+        storage.reset();
+        new AstoLayers(new AstoBlobs(storage, new DefaultLayout(), new RepoName.Simple("my")))
+            .mount(blob).toCompletableFuture().join();
+        MatcherAssert.assertThat(storage.total(), new IsEqual<>(0));
+    }
+
+    @Test
+    void shouldMountBlobOfOtherRepositoryByLink() {
+        final CountingStorage storage = new CountingStorage(new InMemoryStorage());
+        final byte[] data = "layer".getBytes();
+        final Blob blob = new AstoLayers(
+            new AstoBlobs(storage, new RepoScopedLayout(), new RepoName.Simple("other"))
+        ).put(new TrustedBlobSource(data)).toCompletableFuture().join();
+        storage.reset();
+        final Layers mine = new AstoLayers(
+            new AstoBlobs(storage, new RepoScopedLayout(), new RepoName.Simple("my"))
+        );
+        mine.mount(blob).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Mount saves single link",
+            storage.total(),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "Mounted blob is served by link",
+            bytes(mine.get(blob.digest()).toCompletableFuture().join().get()),
+            new IsEqual<>(data)
+        );
+        MatcherAssert.assertThat(
+            "Link is stored by repository blob key under links root",
+            storage.exists(
+                new Key.From(
+                    String.format("links/repositories/my/_blobs/%s", blob.digest().hex())
+                )
+            ).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void shouldNotFindBlobOfOtherRepositoryWithoutLink() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final Blob blob = new AstoLayers(
+            new AstoBlobs(storage, new RepoScopedLayout(), new RepoName.Simple("other"))
+        ).put(new TrustedBlobSource("private".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new AstoLayers(
+                new AstoBlobs(storage, new RepoScopedLayout(), new RepoName.Simple("my"))
+            ).get(blob.digest()).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldNotFindBlobByDanglingLink() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final Digest digest = new Digest.Sha256("gone".getBytes());
+        final RepoName name = new RepoName.Simple("my");
+        storage.save(
+            new RepoScopedLayout().link(name, digest),
+            new Content.From("repositories/other/_blobs/gone".getBytes())
+        ).join();
+        MatcherAssert.assertThat(
+            new AstoLayers(new AstoBlobs(storage, new RepoScopedLayout(), name))
+                .get(digest).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldLookUpAbsentBlobOfSharedLayoutOnce() {
+        final CountingStorage storage = new CountingStorage(new InMemoryStorage());
+        new AstoLayers(new AstoBlobs(storage, new DefaultLayout(), new RepoName.Simple("my")))
+            .get(new Digest.Sha256("absent".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(storage.total(), new IsEqual<>(1));
+    }
+
+    @Test
+    void shouldCopyBlobMountedFromOtherStorage() {
+        final byte[] data = "other storage".getBytes();
+        final Blob blob = new AstoLayers(
+            new AstoBlobs(new InMemoryStorage(), new DefaultLayout(), new RepoName.Simple("src"))
+        ).put(new TrustedBlobSource(data)).toCompletableFuture().join();
+        final Layers target = new AstoLayers(
+            new AstoBlobs(new InMemoryStorage(), new DefaultLayout(), new RepoName.Simple("dst"))
+        );
+        target.mount(blob).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            bytes(target.get(blob.digest()).toCompletableFuture().join().get()),
+            new IsEqual<>(data)
+        );
+    }
+
     private static byte[] bytes(final Blob blob) {
         return new PublisherAs(blob.content().toCompletableFuture().join())
             .bytes()
             .toCompletableFuture().join();
     }
+
+    /**
+     * Layout storing blobs per repository.
+     *
+     * @since 0.18
+     */
+    private static final class RepoScopedLayout implements BlobsLayout {
+
+        @Override
+        public Key blob(final RepoName repo, final Digest digest) {
+            return new Key.From("repositories", repo.value(), "_blobs", digest.hex());
+        }
+    }
 }
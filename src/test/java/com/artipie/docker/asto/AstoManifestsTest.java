@@ -6,20 +6,32 @@
 package com.artipie.docker.asto;
 
 import com.artipie.asto.Content;
+import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.docker.Blob;
+import com.artipie.docker.Digest;
 import com.artipie.docker.ExampleStorage;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Tag;
 import com.artipie.docker.Tags;
 import com.artipie.docker.error.InvalidManifestException;
+import com.artipie.docker.error.ManifestTooLargeException;
+import com.artipie.docker.fake.CountingStorage;
 import com.artipie.docker.manifest.Manifest;
+import com.artipie.docker.manifest.ManifestInfo;
+import com.artipie.docker.misc.HashingPool;
 import com.artipie.docker.ref.ManifestRef;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.json.Json;
+import javax.json.JsonArrayBuilder;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
@@ -77,6 +89,32 @@ final class AstoManifestsTest {
         MatcherAssert.assertThat(manifest.isPresent(), new IsEqual<>(false));
     }
 
+    @Test
+    @Timeout(5)
+    void shouldResolveDigest() {
+        MatcherAssert.assertThat(
+            this.manifests.digest(new ManifestRef.FromTag(new Tag.Valid("1")))
+                .toCompletableFuture().join()
+                .map(Digest::string),
+            new IsEqual<>(
+                Optional.of(
+                    "sha256:cb8a924afdf0229ef7515d9e5b3024e23b3eb03ddbba287f4a19c6ac90b8d221"
+                )
+            )
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldResolveNoDigestIfAbsent() {
+        MatcherAssert.assertThat(
+            this.manifests.digest(new ManifestRef.FromTag(new Tag.Valid("2")))
+                .toCompletableFuture().join()
+                .isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
     @Test
     @Timeout(5)
     void shouldReadAddedManifest() {
@@ -140,6 +178,241 @@ final class AstoManifestsTest {
         );
     }
 
+    @Test
+    @Timeout(5)
+    void shouldResolveCachedTag() {
+        final CountingStorage storage = new CountingStorage(new ExampleStorage());
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final AstoManifests cached = new AstoManifests(
+            storage, new AstoBlobs(storage, layout, name), layout, name,
+            AstoManifests.CONCURRENCY, new LinksCache()
+        );
+        final ManifestRef ref = new ManifestRef.FromTag(new Tag.Valid("1"));
+        cached.digest(ref).toCompletableFuture().join();
+        storage.reset();
+        MatcherAssert.assertThat(
+            "Digest is resolved",
+            cached.digest(ref).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Tag link is not read from storage",
+            storage.total(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldResolveAbsentTagWithSingleStorageOperation() {
+        final CountingStorage storage = new CountingStorage(new ExampleStorage());
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        new AstoManifests(storage, new AstoBlobs(storage, layout, name), layout, name)
+            .digest(new ManifestRef.FromTag(new Tag.Valid("absent")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Link is read once",
+            storage.count("value"),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "No existence check is performed",
+            storage.total(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldReadInfoWithoutManifestContent() {
+        final CountingStorage storage = new CountingStorage(new ExampleStorage());
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final AstoBlobs local = new AstoBlobs(storage, layout, name);
+        final AstoManifests counted = new AstoManifests(storage, local, layout, name);
+        final Blob config = local.put(new TrustedBlobSource("config".getBytes()))
+            .toCompletableFuture().join();
+        final Blob layer = local.put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        final byte[] data = this.getJsonBytes(config, layer, "my-type");
+        final ManifestRef ref = new ManifestRef.FromTag(new Tag.Valid("info"));
+        final Manifest manifest = counted.put(ref, new Content.From(data))
+            .toCompletableFuture().join();
+        storage.reset();
+        final ManifestInfo info = counted.info(ref).toCompletableFuture().join().get();
+        MatcherAssert.assertThat(
+            "Size is read from metadata",
+            info.size(),
+            new IsEqual<>((long) data.length)
+        );
+        MatcherAssert.assertThat(
+            "Media types are read from metadata",
+            info.mediaTypes(),
+            Matchers.contains("my-type")
+        );
+        MatcherAssert.assertThat(
+            "Digest is resolved",
+            info.digest().string(),
+            new IsEqual<>(manifest.digest().string())
+        );
+        MatcherAssert.assertThat(
+            "Only metadata is read from storage",
+            storage.count("value"),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldStoreInfoOfManifestWithoutIt() {
+        final Storage storage = new ExampleStorage();
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final ManifestInfo info = new AstoManifests(
+            storage, new AstoBlobs(storage, layout, name), layout, name
+        ).info(new ManifestRef.FromTag(new Tag.Valid("1"))).toCompletableFuture().join().get();
+        MatcherAssert.assertThat(
+            "Size is read from manifest",
+            info.size(),
+            new IsEqual<>(528L)
+        );
+        MatcherAssert.assertThat(
+            "Metadata is stored for next requests",
+            storage.exists(layout.info(name, info.digest())).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldReadNoInfoIfAbsent() {
+        MatcherAssert.assertThat(
+            this.manifests.info(new ManifestRef.FromTag(new Tag.Valid("2")))
+                .toCompletableFuture().join()
+                .isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldHashManifestReceivedInChunks() {
+        final Blob config = this.blobs.put(new TrustedBlobSource("config".getBytes()))
+            .toCompletableFuture().join();
+        final Blob layer = this.blobs.put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        final byte[] data = this.getJsonBytes(config, layer, "my-type");
+        final int half = data.length / 2;
+        final Manifest manifest = this.manifests.put(
+            new ManifestRef.FromTag(new Tag.Valid("chunked")),
+            new Content.From(
+                Flowable.just(
+                    ByteBuffer.wrap(data, 0, half),
+                    ByteBuffer.wrap(data, half, data.length - half)
+                )
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Digest is calculated from all chunks",
+            manifest.digest().string(),
+            new IsEqual<>(new Digest.Sha256(data).string())
+        );
+        MatcherAssert.assertThat(
+            "Manifest content is stored",
+            this.manifest(new ManifestRef.FromDigest(manifest.digest())),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldRejectManifestOverLimit() {
+        final Storage storage = new ExampleStorage();
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final CompletionStage<Manifest> future = new AstoManifests(
+            storage, new AstoBlobs(storage, layout, name), layout, name,
+            AstoManifests.CONCURRENCY, new LinksCache(), 16
+        ).put(
+            new ManifestRef.FromTag(new Tag.Valid("large")),
+            new Content.From(
+                Flowable.just(ByteBuffer.wrap(new byte[10]), ByteBuffer.wrap(new byte[10]))
+            )
+        );
+        final CompletionException exception = Assertions.assertThrows(
+            CompletionException.class,
+            () -> future.toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            exception.getCause(),
+            new IsInstanceOf(ManifestTooLargeException.class)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldLimitConcurrentBlobChecks() {
+        final Blob layer = this.blobs.put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        final TrackingBlobs tracking = new TrackingBlobs(this.blobs);
+        new AstoManifests(
+            new ExampleStorage(), tracking, new DefaultLayout(), new RepoName.Simple("my"),
+            new AstoSettings(
+                new HashingPool(), new BlobsCache(), new LinksCache(), AstoManifests.MAX_SIZE, 2
+            )
+        ).put(
+            new ManifestRef.FromTag(new Tag.Valid("many")),
+            new Content.From(AstoManifestsTest.manifest(layer.digest(), layer.digest(), 20))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "All blobs are checked",
+            tracking.lookups.get(),
+            new IsEqual<>(21)
+        );
+        MatcherAssert.assertThat(
+            "Blobs are checked with limited concurrency",
+            tracking.max.get(),
+            Matchers.lessThanOrEqualTo(2)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldStopValidationOnMissingBlob() {
+        final Blob config = this.blobs.put(new TrustedBlobSource("config".getBytes()))
+            .toCompletableFuture().join();
+        final TrackingBlobs tracking = new TrackingBlobs(this.blobs);
+        final CompletionException exception = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new AstoManifests(
+                new ExampleStorage(), tracking, new DefaultLayout(), new RepoName.Simple("my"), 1
+            ).put(
+                new ManifestRef.FromTag(new Tag.Valid("missing")),
+                new Content.From(
+                    AstoManifestsTest.manifest(
+                        config.digest(),
+                        new Digest.Sha256(
+                            "0123456789012345678901234567890123456789012345678901234567890123"
+                        ),
+                        10
+                    )
+                )
+            ).toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Manifest is invalid",
+            exception.getCause(),
+            new IsInstanceOf(InvalidManifestException.class)
+        );
+        MatcherAssert.assertThat(
+            "Remaining blobs are not checked",
+            tracking.lookups.get(),
+            new IsEqual<>(2)
+        );
+    }
+
     @Test
     @Timeout(5)
     void shouldReadTags() {
@@ -151,6 +424,79 @@ final class AstoManifestsTest {
         );
     }
 
+    @Test
+    @Timeout(5)
+    void shouldPutManifestIfIndexUpdateFails() {
+        final Storage storage = new FailingIndexStorage(new ExampleStorage());
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final AstoBlobs store = new AstoBlobs(storage, layout, name);
+        final Blob config = store.put(new TrustedBlobSource("config".getBytes()))
+            .toCompletableFuture().join();
+        final Blob layer = store.put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        final ManifestRef ref = new ManifestRef.FromTag(new Tag.Valid("pushed"));
+        final AstoManifests failing = new AstoManifests(storage, store, layout, name);
+        failing.put(ref, new Content.From(this.getJsonBytes(config, layer, "my-type")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            failing.get(ref).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldListTagIfIndexUpdateFails() {
+        final Storage storage = new ExampleStorage();
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final AstoManifests indexed = new AstoManifests(
+            storage, new AstoBlobs(storage, layout, name), layout, name
+        );
+        indexed.tags(Optional.empty(), Integer.MAX_VALUE).toCompletableFuture().join();
+        final Storage failing = new FailingIndexStorage(storage);
+        final AstoBlobs store = new AstoBlobs(failing, layout, name);
+        final Blob config = store.put(new TrustedBlobSource("config".getBytes()))
+            .toCompletableFuture().join();
+        final Blob layer = store.put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        new AstoManifests(failing, store, layout, name).put(
+            new ManifestRef.FromTag(new Tag.Valid("pushed")),
+            new Content.From(this.getJsonBytes(config, layer, "my-type"))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                indexed.tags(Optional.empty(), Integer.MAX_VALUE)
+                    .toCompletableFuture().join().json()
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("{\"name\":\"my-alpine\",\"tags\":[\"1\",\"latest\",\"pushed\"]}")
+        );
+    }
+
+    @Test
+    @Timeout(5)
+    void shouldNotUpdateIndexOnRead() {
+        final CountingStorage storage = new CountingStorage(new ExampleStorage());
+        final Layout layout = new DefaultLayout();
+        final RepoName name = new RepoName.Simple("my-alpine");
+        final Digest digest = this.manifests
+            .digest(new ManifestRef.FromTag(new Tag.Valid("1")))
+            .toCompletableFuture().join().get();
+        final AstoManifests reading = new AstoManifests(
+            storage, new AstoBlobs(storage, layout, name), layout, name
+        );
+        reading.tags(Optional.empty(), Integer.MAX_VALUE).toCompletableFuture().join();
+        storage.save(
+            layout.manifest(name, new ManifestRef.FromTag(new Tag.Valid("old"))),
+            new Content.From(digest.string().getBytes())
+        ).join();
+        storage.reset();
+        reading.digest(new ManifestRef.FromTag(new Tag.Valid("old")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(storage.count("save"), new IsEqual<>(0));
+    }
+
     private byte[] manifest(final ManifestRef ref) {
         return this.manifests.get(ref)
             .thenApply(Optional::get)
@@ -158,6 +504,18 @@ final class AstoManifestsTest {
             .toCompletableFuture().join();
     }
 
+    private static byte[] manifest(final Digest config, final Digest layer, final int count) {
+        final JsonArrayBuilder layers = Json.createArrayBuilder();
+        for (int idx = 0; idx < count; ++idx) {
+            layers.add(Json.createObjectBuilder().add("digest", layer.string()));
+        }
+        return Json.createObjectBuilder()
+            .add("config", Json.createObjectBuilder().add("digest", config.string()))
+            .add("mediaType", "my-type")
+            .add("layers", layers)
+            .build().toString().getBytes();
+    }
+
     private byte[] getJsonBytes(final Blob config, final Blob layer, final String mtype) {
         return Json.createObjectBuilder()
             .add(
@@ -179,4 +537,89 @@ final class AstoManifestsTest {
             )
             .build().toString().getBytes();
     }
+
+    /**
+     * Storage failing to save tags index.
+     *
+     * @since 0.18
+     */
+    private static final class FailingIndexStorage extends Storage.Wrap {
+
+        /**
+         * Ctor.
+         *
+         * @param origin Origin storage.
+         */
+        FailingIndexStorage(final Storage origin) {
+            super(origin);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(final Key key, final Content content) {
+            final CompletableFuture<Void> res;
+            if (key.string().contains("tags-index/")
+                && !key.string().startsWith(".artipie-locks")) {
+                res = new CompletableFuture<>();
+                res.completeExceptionally(new IllegalStateException("Index is not writable"));
+            } else {
+                res = super.save(key, content);
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Blob store tracking blob lookups.
+     *
+     * @since 0.18
+     */
+    private static final class TrackingBlobs implements BlobStore {
+
+        /**
+         * Origin blobs.
+         */
+        private final BlobStore origin;
+
+        /**
+         * Amount of lookups.
+         */
+        private final AtomicInteger lookups;
+
+        /**
+         * Amount of lookups in progress.
+         */
+        private final AtomicInteger active;
+
+        /**
+         * Maximum amount of lookups in progress.
+         */
+        private final AtomicInteger max;
+
+        /**
+         * Ctor.
+         *
+         * @param origin Origin blobs.
+         */
+        TrackingBlobs(final BlobStore origin) {
+            this.origin = origin;
+            this.lookups = new AtomicInteger();
+            this.active = new AtomicInteger();
+            this.max = new AtomicInteger();
+        }
+
+        @Override
+        public CompletionStage<Optional<Blob>> blob(final Digest digest) {
+            this.lookups.incrementAndGet();
+            this.max.accumulateAndGet(this.active.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(
+                () -> this.origin.blob(digest).toCompletableFuture().join(),
+                CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS)
+            ).whenComplete((blob, err) -> this.active.decrementAndGet());
+        }
+
+        @Override
+        public CompletionStage<Blob> put(final BlobSource source) {
+            return this.origin.put(source);
+        }
+    }
 }
@@ -15,13 +15,18 @@ import com.artipie.docker.Digest;
 import com.artipie.docker.Layers;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Upload;
+import com.artipie.docker.error.InvalidDigestException;
+import com.artipie.docker.error.InvalidRangeException;
+import com.artipie.docker.fake.CountingStorage;
 import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -84,11 +89,10 @@ class AstoUploadTest {
             .atZone(ZoneOffset.UTC).toInstant();
         this.upload.start(time).join();
         MatcherAssert.assertThat(
-            new String(
-                new BlockingStorage(this.storage)
-                    .value(new Key.From(this.upload.root(), "started")),
-                StandardCharsets.US_ASCII
-            ), Matchers.equalTo("2020-05-19T12:58:11Z")
+            new UploadState(
+                new BlockingStorage(this.storage).value(this.upload.stateKey())
+            ).started().toString(),
+            Matchers.equalTo("2020-05-19T12:58:11Z")
         );
     }
 
@@ -113,7 +117,45 @@ class AstoUploadTest {
     }
 
     @Test
-    void shouldFailAppendedSecondChunk() {
+    void shouldReadAppendedChunks() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("one".getBytes()))
+            .toCompletableFuture()
+            .join();
+        this.upload.append(new Content.From("two".getBytes()))
+            .toCompletableFuture()
+            .join();
+        this.upload.append(new Content.From("three".getBytes()))
+            .toCompletableFuture()
+            .join();
+        MatcherAssert.assertThat(
+            this.upload,
+            new IsUploadWithContent("onetwothree".getBytes())
+        );
+    }
+
+    @Test
+    void shouldReturnOffsetWhenAppendedChunkAtPosition() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(0, new Content.From("12345".getBytes()))
+            .toCompletableFuture()
+            .join();
+        MatcherAssert.assertThat(
+            "Offset after append is correct",
+            this.upload.append(5, new Content.From("678".getBytes()))
+                .toCompletableFuture()
+                .join(),
+            new IsEqual<>(7L)
+        );
+        MatcherAssert.assertThat(
+            "Offset is correct",
+            this.upload.offset().toCompletableFuture().join(),
+            new IsEqual<>(7L)
+        );
+    }
+
+    @Test
+    void shouldFailAppendedChunkAtWrongPosition() {
         this.upload.start().toCompletableFuture().join();
         this.upload.append(new Content.From("one".getBytes()))
             .toCompletableFuture()
@@ -121,11 +163,11 @@ class AstoUploadTest {
         MatcherAssert.assertThat(
             Assertions.assertThrows(
                 CompletionException.class,
-                () -> this.upload.append(new Content.From("two".getBytes()))
+                () -> this.upload.append(2, new Content.From("two".getBytes()))
                     .toCompletableFuture()
                     .join()
             ).getCause(),
-            new IsInstanceOf(UnsupportedOperationException.class)
+            new IsInstanceOf(InvalidRangeException.class)
         );
     }
 
@@ -146,6 +188,321 @@ class AstoUploadTest {
         );
     }
 
+    @Test
+    void shouldSaveDigestOfFirstChunkOnAppend() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("abc".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Digest of the first chunk is saved",
+            new UploadState(
+                new BlockingStorage(this.storage).value(this.upload.stateKey())
+            ).digest().map(Digest::hex),
+            new IsEqual<>(Optional.of(new Digest.Sha256("abc".getBytes()).hex()))
+        );
+        this.upload.append(new Content.From("defg".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Digest is unknown after the next chunk",
+            new UploadState(
+                new BlockingStorage(this.storage).value(this.upload.stateKey())
+            ).digest().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldVerifyDigestOfSeveralChunksOnPut() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("abc".getBytes())).toCompletableFuture().join();
+        this.upload.append(new Content.From("defg".getBytes())).toCompletableFuture().join();
+        final CapturePutLayers layers = new CapturePutLayers();
+        this.upload.putTo(layers, new Digest.Sha256("abcdefg".getBytes()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            layers.content(),
+            new IsEqual<>("abcdefg".getBytes())
+        );
+    }
+
+    @Test
+    void shouldFailPutWithWrongDigest() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("one".getBytes())).toCompletableFuture().join();
+        this.upload.append(new Content.From("two".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                CompletionException.class,
+                () -> this.upload.putTo(
+                    new CapturePutLayers(), new Digest.Sha256("three".getBytes())
+                ).toCompletableFuture().join()
+            ).getCause(),
+            new IsInstanceOf(InvalidDigestException.class)
+        );
+    }
+
+    @Test
+    void shouldAssembleOutOfOrderChunks() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(8, new Content.From("89".getBytes())).toCompletableFuture().join();
+        this.upload.append(5, new Content.From("567".getBytes())).toCompletableFuture().join();
+        this.upload.append(0, new Content.From("01234".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Upload content is assembled",
+            this.upload,
+            new IsUploadWithContent("0123456789".getBytes())
+        );
+        MatcherAssert.assertThat(
+            "Upload files are removed",
+            this.storage.list(this.upload.root()).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void shouldAssembleOverlappingChunks() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("0123".getBytes())).toCompletableFuture().join();
+        this.upload.append(5, new Content.From("56789".getBytes())).toCompletableFuture().join();
+        this.upload.append(4, new Content.From("456".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.upload,
+            new IsUploadWithContent("0123456789".getBytes())
+        );
+    }
+
+    @Test
+    void shouldRemovePartsNotIncludedInBlob() {
+        this.upload.start().toCompletableFuture().join();
+        final byte[] chunk = "0123".getBytes();
+        this.upload.append(new Content.From(chunk)).toCompletableFuture().join();
+        this.upload.append(6, new Content.From("67".getBytes())).toCompletableFuture().join();
+        this.upload.putTo(new CapturePutLayers(), new Digest.Sha256(chunk))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.storage.list(this.upload.root()).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void shouldFailChunkShorterThanDeclared() {
+        this.upload.start().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Chunk is rejected",
+            Assertions.assertThrows(
+                CompletionException.class,
+                () -> this.upload.append(
+                    0,
+                    new Content.From(
+                        Optional.of(100L), Flowable.just(ByteBuffer.wrap("01234".getBytes()))
+                    )
+                ).toCompletableFuture().join()
+            ).getCause(),
+            new IsInstanceOf(InvalidRangeException.class)
+        );
+        MatcherAssert.assertThat(
+            "Offset is not changed",
+            this.upload.offset().toCompletableFuture().join(),
+            new IsEqual<>(0L)
+        );
+        MatcherAssert.assertThat(
+            "Only state is kept",
+            this.storage.list(this.upload.root()).join(),
+            new IsEqual<>(Collections.singletonList(this.upload.stateKey()))
+        );
+    }
+
+    @Test
+    void shouldNotChangeOffsetOnOutOfOrderChunk() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("abc".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Offset after out-of-order chunk is contiguous offset",
+            this.upload.append(5, new Content.From("fgh".getBytes()))
+                .toCompletableFuture().join(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "Next in-order chunk is expected at contiguous offset",
+            this.upload.append(3, new Content.From("de".getBytes()))
+                .toCompletableFuture().join(),
+            new IsEqual<>(4L)
+        );
+    }
+
+    @Test
+    void shouldFailPutWithMissingRange() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(0, new Content.From("abc".getBytes())).toCompletableFuture().join();
+        this.upload.append(5, new Content.From("fgh".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                CompletionException.class,
+                () -> this.upload.putTo(
+                    new CapturePutLayers(), new Digest.Sha256("abcdefgh".getBytes())
+                ).toCompletableFuture().join()
+            ).getCause(),
+            new IsInstanceOf(InvalidRangeException.class)
+        );
+    }
+
+    @Test
+    void shouldFailPutOfAssembledChunksWithWrongDigest() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(3, new Content.From("def".getBytes())).toCompletableFuture().join();
+        this.upload.append(0, new Content.From("abc".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                CompletionException.class,
+                () -> this.upload.putTo(
+                    new CapturePutLayers(), new Digest.Sha256("abcxyz".getBytes())
+                ).toCompletableFuture().join()
+            ).getCause(),
+            new IsInstanceOf(InvalidDigestException.class)
+        );
+    }
+
+    @Test
+    void shouldFailOutOfOrderChunkOfUnknownSize() {
+        this.upload.start().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                CompletionException.class,
+                () -> this.upload.append(
+                    3, new Content.From(Flowable.just(ByteBuffer.wrap("def".getBytes())))
+                ).toCompletableFuture().join()
+            ).getCause(),
+            new IsInstanceOf(InvalidRangeException.class)
+        );
+    }
+
+    @Test
+    void shouldLoadStateOfStartedUpload() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("one".getBytes())).toCompletableFuture().join();
+        final AstoUpload loaded = new AstoUpload(
+            this.storage, new DefaultLayout(), new RepoName.Valid("test"), this.upload.uuid()
+        );
+        loaded.append(new Content.From("two".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            loaded,
+            new IsUploadWithContent("onetwo".getBytes())
+        );
+    }
+
+    @Test
+    void shouldContinueUploadStartedWithLegacyLayout() {
+        final byte[] chunk = "one".getBytes();
+        this.storage.save(
+            new Key.From(this.upload.root(), "started"),
+            new Content.From("2020-05-19T12:58:11Z".getBytes(StandardCharsets.US_ASCII))
+        ).join();
+        this.storage.save(
+            new Key.From(
+                this.upload.root(),
+                String.format("sha256_%s", new Digest.Sha256(chunk).hex())
+            ),
+            new Content.From(chunk)
+        ).join();
+        MatcherAssert.assertThat(
+            "Offset is restored from legacy chunk",
+            this.upload.offset().toCompletableFuture().join(),
+            new IsEqual<>(2L)
+        );
+        this.upload.append(new Content.From("two".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Legacy chunk is continued",
+            this.upload,
+            new IsUploadWithContent("onetwo".getBytes())
+        );
+    }
+
+    @Test
+    void shouldStartWithSingleStorageOperation() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        this.counted(counting).start().toCompletableFuture().join();
+        MatcherAssert.assertThat(counting.total(), new IsEqual<>(1));
+    }
+
+    @Test
+    void shouldAppendWithTwoStorageOperations() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        final AstoUpload counted = this.counted(counting);
+        counted.start().toCompletableFuture().join();
+        counted.append(new Content.From("one".getBytes())).toCompletableFuture().join();
+        counting.reset();
+        counted.append(new Content.From("two".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Chunk and state are saved",
+            counting.count("save"),
+            new IsEqual<>(2)
+        );
+        MatcherAssert.assertThat(
+            "No other operations performed",
+            counting.total(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void shouldReturnOffsetWithoutStorageOperations() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        final AstoUpload counted = this.counted(counting);
+        counted.start().toCompletableFuture().join();
+        counted.append(new Content.From("abc".getBytes())).toCompletableFuture().join();
+        counting.reset();
+        counted.offset().toCompletableFuture().join();
+        MatcherAssert.assertThat(counting.total(), new IsEqual<>(0));
+    }
+
+    @Test
+    void shouldLoadStateWithSingleStorageOperation() {
+        this.upload.start().toCompletableFuture().join();
+        this.upload.append(new Content.From("abc".getBytes())).toCompletableFuture().join();
+        final CountingStorage counting = new CountingStorage(this.storage);
+        final AstoUpload counted = this.counted(counting);
+        MatcherAssert.assertThat(
+            "Offset is read from state",
+            counted.offset().toCompletableFuture().join(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "State is read once",
+            counting.count("value"),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "No other operations performed",
+            counting.total(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void shouldPutSingleChunkWithoutCopying() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        final AstoUpload counted = this.counted(counting);
+        final byte[] chunk = "data".getBytes();
+        counted.start().toCompletableFuture().join();
+        counted.append(new Content.From(chunk)).toCompletableFuture().join();
+        counting.reset();
+        counted.putTo(
+            new AstoLayers(
+                new AstoBlobs(counting, new DefaultLayout(), new RepoName.Valid("test"))
+            ),
+            new Digest.Sha256(chunk)
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Chunk is moved",
+            counting.count("move"),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "Existence check, move, listing and state deletion performed",
+            counting.total(),
+            new IsEqual<>(4)
+        );
+    }
+
     @Test
     void shouldRemoveUploadedFiles() throws ExecutionException, InterruptedException {
         this.upload.start().toCompletableFuture().join();
@@ -159,6 +516,18 @@ class AstoUploadTest {
         );
     }
 
+    /**
+     * Upload of the same UUID as tested one over given storage.
+     *
+     * @param asto Storage.
+     * @return Upload.
+     */
+    private AstoUpload counted(final Storage asto) {
+        return new AstoUpload(
+            asto, new DefaultLayout(), new RepoName.Valid("test"), this.upload.uuid()
+        );
+    }
+
     /**
      * Matcher for {@link Upload} content.
      *
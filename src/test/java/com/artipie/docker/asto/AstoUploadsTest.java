@@ -4,11 +4,19 @@
  */
 package com.artipie.docker.asto;
 
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.Uploads;
+import com.artipie.docker.fake.CountingStorage;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -96,6 +104,45 @@ final class AstoUploadsTest {
         );
     }
 
+    @Test
+    void shouldFindUploadStartedWithLegacyLayout() {
+        final String uuid = UUID.randomUUID().toString();
+        this.storage.save(
+            new Key.From(new UploadKey(this.reponame, uuid), "started"),
+            new Content.From("2020-05-19T12:58:11Z".getBytes(StandardCharsets.US_ASCII))
+        ).join();
+        MatcherAssert.assertThat(
+            this.uploads.get(uuid).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void shouldFindUploadWithSingleStorageOperation() {
+        final String uuid = this.uploads.start()
+            .toCompletableFuture().join()
+            .uuid();
+        final CountingStorage counting = new CountingStorage(this.storage);
+        new AstoUploads(counting, new DefaultLayout(), this.reponame).get(uuid)
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(counting.total(), new IsEqual<>(1));
+    }
+
+    @Test
+    void shouldEncodeStartTimeInUuid() {
+        final Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        final String uuid = this.uploads.start()
+            .toCompletableFuture().join()
+            .uuid();
+        MatcherAssert.assertThat(
+            new UploadUuid(uuid).started().get(),
+            Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(before),
+                Matchers.lessThanOrEqualTo(Instant.now())
+            )
+        );
+    }
+
     @Test
     void shouldReturnEmptyOptional() {
         MatcherAssert.assertThat(
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BlobsCache}.
+ *
+ * @since 0.18
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class BlobsCacheTest {
+
+    @Test
+    void shouldKeepKnownSize() {
+        final BlobsCache cache = new BlobsCache();
+        final Key key = new Key.From("blobs/a");
+        cache.size(key, 10L);
+        cache.exists(key);
+        MatcherAssert.assertThat(cache.size(key), new IsEqual<>(OptionalLong.of(10L)));
+    }
+
+    @Test
+    void shouldNotKnowSizeOfExistingBlob() {
+        final BlobsCache cache = new BlobsCache();
+        final Key key = new Key.From("blobs/b");
+        cache.exists(key);
+        MatcherAssert.assertThat(
+            "Blob exists",
+            cache.contains(key),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Size is unknown",
+            cache.size(key),
+            new IsEqual<>(OptionalLong.empty())
+        );
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        final BlobsCache cache = new BlobsCache(2);
+        final Key first = new Key.From("blobs/1");
+        final Key second = new Key.From("blobs/2");
+        cache.size(first, 1L);
+        cache.size(second, 2L);
+        cache.size(first);
+        cache.size(new Key.From("blobs/3"), 3L);
+        MatcherAssert.assertThat(
+            "Recently used blob is kept",
+            cache.contains(first),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Least recently used blob is evicted",
+            cache.contains(second),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldInvalidate() {
+        final BlobsCache cache = new BlobsCache();
+        final Key key = new Key.From("blobs/c");
+        cache.size(key, 5L);
+        cache.invalidate(key);
+        MatcherAssert.assertThat(cache.contains(key), new IsEqual<>(false));
+    }
+
+    @Test
+    void shouldKeepEntriesOfAllStripes() {
+        final BlobsCache cache = new BlobsCache();
+        for (int idx = 0; idx < 1000; ++idx) {
+            cache.size(new Key.From("blobs", String.valueOf(idx)), idx);
+        }
+        MatcherAssert.assertThat(
+            IntStream.range(0, 1000)
+                .mapToObj(idx -> cache.size(new Key.From("blobs", String.valueOf(idx))))
+                .collect(Collectors.toList()),
+            new IsEqual<>(
+                IntStream.range(0, 1000).mapToObj(OptionalLong::of)
+                    .collect(Collectors.toList())
+            )
+        );
+    }
+}
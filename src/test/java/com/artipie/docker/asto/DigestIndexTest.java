@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.Digest;
+import com.artipie.docker.RepoName;
+import com.artipie.docker.fake.CountingStorage;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DigestIndex}.
+ *
+ * @since 0.18
+ */
+final class DigestIndexTest {
+
+    /**
+     * Blob digest.
+     */
+    private static final Digest DIGEST = new Digest.Sha256("layer".getBytes());
+
+    @Test
+    void shouldStoreEntriesUnderLayoutRoot() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final DigestIndex index = new DigestIndex(storage, new DefaultLayout());
+        index.add(new RepoName.Valid("my/alpine"), DigestIndexTest.DIGEST)
+            .toCompletableFuture().join();
+        index.add(new RepoName.Valid("other"), DigestIndexTest.DIGEST)
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Entries are stored under digest index root",
+            storage.list(new DefaultLayout().digestIndex()).join().stream()
+                .map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.everyItem(Matchers.startsWith("digest-index/sha256/"))
+        );
+        MatcherAssert.assertThat(
+            "Repositories are found by digest",
+            index.repositories(DigestIndexTest.DIGEST).toCompletableFuture().join().stream()
+                .map(RepoName::value)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("my/alpine", "other")
+        );
+    }
+
+    @Test
+    void shouldNotRewriteExistingEntry() {
+        final CountingStorage storage = new CountingStorage(new InMemoryStorage());
+        final DigestIndex index = new DigestIndex(storage, new DefaultLayout());
+        final RepoName name = new RepoName.Valid("my/alpine");
+        index.add(name, DigestIndexTest.DIGEST).toCompletableFuture().join();
+        storage.reset();
+        index.add(name, DigestIndexTest.DIGEST).toCompletableFuture().join();
+        MatcherAssert.assertThat(storage.count("save"), new IsEqual<>(0));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import java.nio.ByteBuffer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link HotBlobs}.
+ *
+ * @since 0.18
+ */
+final class HotBlobsTest {
+
+    @Test
+    void shouldServeCachedContent() {
+        final HotBlobs hot = new HotBlobs(100L, 10);
+        final Key key = new Key.From("blobs/a");
+        hot.put(key, new byte[]{1, 2, 3});
+        final ByteBuffer buf = hot.get(key).orElseThrow(IllegalStateException::new);
+        MatcherAssert.assertThat(
+            "Content is stored off-heap",
+            buf.isDirect(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Content is read",
+            buf,
+            new IsEqual<>(ByteBuffer.wrap(new byte[]{1, 2, 3}))
+        );
+        MatcherAssert.assertThat(
+            "Hit is counted",
+            hot.hits(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void shouldNotCacheLargeContent() {
+        final HotBlobs hot = new HotBlobs(100L, 2);
+        final Key key = new Key.From("blobs/b");
+        hot.put(key, new byte[]{1, 2, 3});
+        MatcherAssert.assertThat(
+            "Content is not cached",
+            hot.get(key).isPresent(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Miss is counted",
+            hot.misses(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void shouldNotCacheIfDisabled() {
+        final HotBlobs hot = new HotBlobs();
+        final Key key = new Key.From("blobs/c");
+        hot.put(key, new byte[]{1});
+        MatcherAssert.assertThat(hot.get(key).isPresent(), new IsEqual<>(false));
+    }
+
+    @Test
+    void shouldAdmitOnlyMoreFrequentlyUsedContent() {
+        final HotBlobs hot = new HotBlobs(4L, 4);
+        final Key popular = new Key.From("blobs/popular");
+        final Key rare = new Key.From("blobs/rare");
+        hot.get(popular);
+        hot.put(popular, new byte[4]);
+        hot.get(popular);
+        hot.get(rare);
+        hot.put(rare, new byte[4]);
+        MatcherAssert.assertThat(
+            "Rarely used content is not admitted",
+            hot.get(rare).isPresent(),
+            new IsEqual<>(false)
+        );
+        for (int idx = 0; idx < 3; ++idx) {
+            hot.get(rare);
+        }
+        hot.put(rare, new byte[4]);
+        MatcherAssert.assertThat(
+            "Frequently used content is admitted",
+            hot.get(rare).isPresent(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Eviction is counted",
+            hot.evictions(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Size is bounded",
+            hot.size(),
+            new IsEqual<>(4L)
+        );
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.docker.Digest;
+import com.artipie.docker.Tag;
+import com.artipie.docker.ref.ManifestRef;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LinksCache}.
+ *
+ * @since 0.18
+ */
+final class LinksCacheTest {
+
+    /**
+     * Manifest digest.
+     */
+    private static final Digest DIGEST = new Digest.Sha256(
+        "cb8a924afdf0229ef7515d9e5b3024e23b3eb03ddbba287f4a19c6ac90b8d221"
+    );
+
+    @Test
+    void shouldReturnTagLinkBeforeExpiration() {
+        final LinksCache cache = new LinksCache(Duration.ofMinutes(1));
+        final Key key = new Key.From("tags/latest");
+        cache.put(key, new ManifestRef.FromTag(new Tag.Valid("latest")), LinksCacheTest.DIGEST);
+        MatcherAssert.assertThat(cache.get(key), new IsEqual<>(Optional.of(LinksCacheTest.DIGEST)));
+    }
+
+    @Test
+    void shouldExpireTagLink() {
+        final LinksCache cache = new LinksCache(Duration.ZERO, 10, Clock.systemUTC());
+        final Key key = new Key.From("tags/1");
+        cache.put(key, new ManifestRef.FromTag(new Tag.Valid("1")), LinksCacheTest.DIGEST);
+        MatcherAssert.assertThat(cache.get(key).isPresent(), new IsEqual<>(false));
+    }
+
+    @Test
+    void shouldKeepDigestLink() {
+        final LinksCache cache = new LinksCache(Duration.ZERO, 10, Clock.systemUTC());
+        final Key key = new Key.From("revisions/link");
+        cache.put(key, new ManifestRef.FromDigest(LinksCacheTest.DIGEST), LinksCacheTest.DIGEST);
+        MatcherAssert.assertThat(cache.get(key), new IsEqual<>(Optional.of(LinksCacheTest.DIGEST)));
+    }
+}
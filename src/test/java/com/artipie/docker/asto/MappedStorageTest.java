@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.collection.IsEmptyCollection;
+import org.hamcrest.core.Every;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link MappedStorage}.
+ *
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @since 0.18
+ */
+final class MappedStorageTest {
+
+    @Test
+    void shouldReadSavedValue(@TempDir final Path dir) {
+        final MappedStorage storage = new MappedStorage(dir, 3, 0, FileListingStorage.IO);
+        final Key key = new Key.From("blobs", "data");
+        final byte[] data = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        storage.save(key, new Content.From(data)).join();
+        final Content content = storage.value(key).join();
+        MatcherAssert.assertThat(
+            "Content size is known",
+            content.size(),
+            new IsEqual<>(Optional.of((long) data.length))
+        );
+        MatcherAssert.assertThat(
+            "Content is read",
+            new PublisherAs(content).bytes().toCompletableFuture().join(),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    void shouldEmitDirectBuffersByWindow(@TempDir final Path dir) {
+        final MappedStorage storage = new MappedStorage(dir, 4, 0, FileListingStorage.IO);
+        final Key key = new Key.From("data");
+        storage.save(
+            key, new Content.From("0123456789".getBytes(StandardCharsets.US_ASCII))
+        ).join();
+        final List<ByteBuffer> buffers = Flowable.fromPublisher(storage.value(key).join())
+            .toList().blockingGet();
+        MatcherAssert.assertThat(
+            "Content is split by window",
+            buffers.size(),
+            new IsEqual<>(3)
+        );
+        MatcherAssert.assertThat(
+            "Buffers are direct",
+            buffers.stream().map(ByteBuffer::isDirect).collect(Collectors.toList()),
+            new Every<>(new IsEqual<>(true))
+        );
+    }
+
+    @Test
+    void shouldReadLargeValueByWindows(@TempDir final Path dir) {
+        final MappedStorage storage = new MappedStorage(dir, 1024, 2048, FileListingStorage.IO);
+        final Key key = new Key.From("blobs", "large");
+        final byte[] data = new byte[5000];
+        new Random().nextBytes(data);
+        storage.save(key, new Content.From(data)).join();
+        MatcherAssert.assertThat(
+            "Content is split by windows with the last partial one",
+            Flowable.fromPublisher(storage.value(key).join())
+                .map(ByteBuffer::remaining)
+                .toList().blockingGet(),
+            new IsEqual<>(Arrays.asList(1024, 1024, 1024, 1024, 904))
+        );
+        MatcherAssert.assertThat(
+            "Content is read when windows are queued by consumer",
+            new PublisherAs(
+                new Content.From(
+                    Flowable.fromPublisher(storage.value(key).join())
+                        .observeOn(Schedulers.io())
+                )
+            ).bytes().toCompletableFuture().join(),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    void shouldReadSmallValueWithoutWindows(@TempDir final Path dir) {
+        final MappedStorage storage = new MappedStorage(dir, 4, 11, FileListingStorage.IO);
+        final Key key = new Key.From("data");
+        final byte[] data = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        storage.save(key, new Content.From(data)).join();
+        final List<ByteBuffer> buffers = Flowable.fromPublisher(storage.value(key).join())
+            .toList().blockingGet();
+        MatcherAssert.assertThat(
+            "Content is not split by window",
+            buffers.size(),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "Content is read",
+            new PublisherAs(storage.value(key).join()).bytes().toCompletableFuture().join(),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    void shouldFailToReadAbsentValue(@TempDir final Path dir) {
+        final CompletionException thrown = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new MappedStorage(dir).value(new Key.From("absent")).join()
+        );
+        MatcherAssert.assertThat(
+            thrown.getCause(),
+            new IsInstanceOf(ValueNotFoundException.class)
+        );
+    }
+
+    @Test
+    void shouldListDirectChildren(@TempDir final Path dir) {
+        final MappedStorage storage = new MappedStorage(dir);
+        storage.save(new Key.From("tags", "1", "link"), Content.EMPTY).join();
+        storage.save(new Key.From("tags", "2", "current", "link"), Content.EMPTY).join();
+        storage.save(new Key.From("tags", "index"), Content.EMPTY).join();
+        MatcherAssert.assertThat(
+            new TreeSet<>(storage.children(new Key.From("tags")).join()),
+            new IsEqual<>(new TreeSet<>(Arrays.asList("1", "2", "index")))
+        );
+    }
+
+    @Test
+    void shouldListNoChildrenOfAbsentKey(@TempDir final Path dir) {
+        MatcherAssert.assertThat(
+            new MappedStorage(dir).children(new Key.From("absent")).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+}
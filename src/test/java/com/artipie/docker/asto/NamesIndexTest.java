@@ -0,0 +1,248 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.fake.CountingStorage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link NamesIndex}.
+ *
+ * @since 0.18
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class NamesIndexTest {
+
+    /**
+     * Tags root key.
+     */
+    private static final Key TAGS = new Key.From("my-alpine", "_manifests", "tags");
+
+    /**
+     * Index root key.
+     */
+    private static final Key INDEX = new Key.From("my-alpine", "_manifests", "tags-index");
+
+    /**
+     * Storage.
+     */
+    private Storage storage;
+
+    @BeforeEach
+    void setUp() {
+        this.storage = new InMemoryStorage();
+    }
+
+    @Test
+    void shouldReadNoPageIfNotBuilt() {
+        MatcherAssert.assertThat(
+            new NamesIndex(this.storage, NamesIndexTest.INDEX, this.source())
+                .page(Optional.empty(), 10)
+                .toCompletableFuture().join()
+                .isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldBuildFromTagLinks() {
+        this.link("latest");
+        this.link("1.0");
+        this.link("2.0");
+        final NamesIndex index = new NamesIndex(
+            this.storage, NamesIndexTest.INDEX, this.source()
+        );
+        index.build().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            index.page(Optional.empty(), 10).toCompletableFuture().join().get(),
+            Matchers.contains("1.0", "2.0", "latest")
+        );
+    }
+
+    @Test
+    void shouldCheckNameIsIndexed() {
+        this.link("1.0");
+        final NamesIndex index = new NamesIndex(
+            this.storage, NamesIndexTest.INDEX, this.source()
+        );
+        MatcherAssert.assertThat(
+            "Name is not found before index is built",
+            index.contains("1.0").toCompletableFuture().join(),
+            new IsEqual<>(false)
+        );
+        index.build().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Indexed name is found",
+            index.contains("1.0").toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Absent name is not found",
+            index.contains("2.0").toCompletableFuture().join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldPageThroughAddedTags() {
+        final List<String> tags = IntStream.range(0, 50)
+            .mapToObj(num -> String.format("v%02d", num))
+            .collect(Collectors.toList());
+        final List<String> shuffled = new ArrayList<>(tags);
+        Collections.shuffle(shuffled, new Random(42));
+        final NamesIndex index = new NamesIndex(
+            this.storage, NamesIndexTest.INDEX, this.source(), 4
+        );
+        for (final String tag : shuffled) {
+            this.link(tag);
+            index.add(tag).toCompletableFuture().join();
+        }
+        index.add("v10").toCompletableFuture().join();
+        final List<String> read = new ArrayList<>(tags.size());
+        Optional<String> last = Optional.empty();
+        while (true) {
+            final List<String> page = index.page(last, 7).toCompletableFuture().join().get();
+            if (page.isEmpty()) {
+                break;
+            }
+            read.addAll(page);
+            last = Optional.of(page.get(page.size() - 1));
+        }
+        MatcherAssert.assertThat(read, new IsEqual<>(tags));
+    }
+
+    @Test
+    void shouldReadOnlySegmentsOfPage() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        final NamesIndex index = new NamesIndex(
+            counting, NamesIndexTest.INDEX, this.source(), 10
+        );
+        IntStream.range(0, 100)
+            .mapToObj(num -> String.format("t%03d", num))
+            .forEach(this::link);
+        index.build().toCompletableFuture().join();
+        counting.reset();
+        MatcherAssert.assertThat(
+            "Page is read",
+            index.page(Optional.of("t042"), 5).toCompletableFuture().join().get(),
+            new IsEqual<>(Arrays.asList("t043", "t044", "t045", "t046", "t047"))
+        );
+        MatcherAssert.assertThat(
+            "Only directory and one segment are read",
+            counting.count("value"),
+            new IsEqual<>(2)
+        );
+        MatcherAssert.assertThat(
+            "Tag links are not listed",
+            counting.count("list"),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void shouldNotUpdateToAddIndexedName() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        final NamesIndex index = new NamesIndex(counting, NamesIndexTest.INDEX, this.source());
+        this.link("latest");
+        index.add("latest").toCompletableFuture().join();
+        counting.reset();
+        index.add("latest").toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Nothing is saved",
+            counting.count("save"),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void shouldRebuildInvalidatedIndex() {
+        this.link("1.0");
+        final NamesIndex index = new NamesIndex(
+            this.storage, NamesIndexTest.INDEX, this.source()
+        );
+        index.build().toCompletableFuture().join();
+        this.link("2.0");
+        index.invalidate().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Index is not read after drop",
+            index.page(Optional.empty(), 10).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+        index.build().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Missing name is added to rebuilt index",
+            index.page(Optional.empty(), 10).toCompletableFuture().join().get(),
+            Matchers.contains("1.0", "2.0")
+        );
+        MatcherAssert.assertThat(
+            "Segments of dropped index are removed",
+            this.storage.list(new Key.From(NamesIndexTest.INDEX, "segments")).join(),
+            Matchers.hasSize(1)
+        );
+    }
+
+    @Test
+    void shouldInvalidateIndexNotBuilt() {
+        final NamesIndex index = new NamesIndex(
+            this.storage, NamesIndexTest.INDEX, this.source()
+        );
+        index.invalidate().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            index.page(Optional.empty(), 10).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldReadAbsentDirectoryWithSingleOperation() {
+        final CountingStorage counting = new CountingStorage(this.storage);
+        new NamesIndex(counting, NamesIndexTest.INDEX, this.source())
+            .page(Optional.empty(), 10)
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(counting.total(), new IsEqual<>(1));
+    }
+
+    /**
+     * Source of tag names from tag links.
+     *
+     * @return Tag names source.
+     */
+    private Supplier<CompletionStage<Collection<String>>> source() {
+        return () -> this.storage.list(NamesIndexTest.TAGS).thenApply(
+            keys -> new Children(NamesIndexTest.TAGS, keys).names()
+        );
+    }
+
+    /**
+     * Save tag link.
+     *
+     * @param tag Tag name.
+     */
+    private void link(final String tag) {
+        this.storage.save(
+            new Key.From(NamesIndexTest.TAGS, tag, "current", "link"),
+            new Content.From("sha256:123".getBytes())
+        ).join();
+    }
+}
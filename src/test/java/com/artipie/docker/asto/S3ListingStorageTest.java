@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Tests for {@link S3ListingStorage}.
+ *
+ * @since 0.18
+ */
+final class S3ListingStorageTest {
+
+    @Test
+    void shouldListChildrenByDelimiterPages() {
+        final PagedClient client = new PagedClient();
+        MatcherAssert.assertThat(
+            "Children of all pages are listed",
+            new S3ListingStorage(client, "bucket")
+                .children(new Key.From("repositories", "my-alpine")).join(),
+            Matchers.containsInAnyOrder("_layers", "_manifests", "index")
+        );
+        MatcherAssert.assertThat(
+            "Objects are listed by prefix and delimiter",
+            client.requests.get(0),
+            new IsEqual<>(
+                ListObjectsV2Request.builder()
+                    .bucket("bucket")
+                    .prefix("repositories/my-alpine/")
+                    .delimiter("/")
+                    .build()
+            )
+        );
+        MatcherAssert.assertThat(
+            "Next page is listed by continuation token",
+            client.requests.get(1).continuationToken(),
+            new IsEqual<>("next")
+        );
+    }
+
+    /**
+     * S3 client responding with two pages of listing.
+     *
+     * @since 0.18
+     */
+    private static final class PagedClient implements S3AsyncClient {
+
+        /**
+         * Received list requests.
+         */
+        private final List<ListObjectsV2Request> requests = new ArrayList<>(2);
+
+        @Override
+        public CompletableFuture<ListObjectsV2Response> listObjectsV2(
+            final ListObjectsV2Request request
+        ) {
+            this.requests.add(request);
+            final ListObjectsV2Response response;
+            if (request.continuationToken() == null) {
+                response = ListObjectsV2Response.builder()
+                    .commonPrefixes(
+                        CommonPrefix.builder().prefix("repositories/my-alpine/_layers/").build()
+                    )
+                    .isTruncated(true)
+                    .nextContinuationToken("next")
+                    .build();
+            } else {
+                response = ListObjectsV2Response.builder()
+                    .commonPrefixes(
+                        CommonPrefix.builder()
+                            .prefix("repositories/my-alpine/_manifests/").build()
+                    )
+                    .contents(S3Object.builder().key("repositories/my-alpine/index").build())
+                    .isTruncated(false)
+                    .build();
+            }
+            return CompletableFuture.completedFuture(response);
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Key;
+import com.artipie.docker.Digest;
+import com.artipie.docker.RepoName;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ShardedLayout}.
+ *
+ * @since 0.18
+ */
+final class ShardedLayoutTest {
+
+    /**
+     * Blob digest.
+     */
+    private static final Digest DIGEST = new Digest.Sha256(
+        "abcdef1234567890abcdef1234567890abcdef1234567890abcdef1234567890"
+    );
+
+    @Test
+    void buildsShardedBlobKey() {
+        MatcherAssert.assertThat(
+            new ShardedLayout(2, 2).blob(new RepoName.Simple("any"), ShardedLayoutTest.DIGEST)
+                .string(),
+            new IsEqual<>(
+                // @checkstyle LineLengthCheck (1 line)
+                "blobs/sha256/ab/cd/abcdef1234567890abcdef1234567890abcdef1234567890abcdef1234567890/data"
+            )
+        );
+    }
+
+    @Test
+    void providesLegacyBlobKey() {
+        MatcherAssert.assertThat(
+            new ShardedLayout(3, 1).legacy(new RepoName.Simple("any"), ShardedLayoutTest.DIGEST)
+                .map(Key::string),
+            new IsEqual<>(
+                Optional.of(
+                    // @checkstyle LineLengthCheck (1 line)
+                    "blobs/sha256/ab/abcdef1234567890abcdef1234567890abcdef1234567890abcdef1234567890/data"
+                )
+            )
+        );
+    }
+
+    @Test
+    void providesNoLegacyBlobKeyAfterMigration() {
+        MatcherAssert.assertThat(
+            new ShardedLayout(new DefaultLayout(), 3, 1, false)
+                .legacy(new RepoName.Simple("any"), ShardedLayoutTest.DIGEST)
+                .isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void delegatesOtherKeys() {
+        final RepoName name = new RepoName.Simple("my/repo");
+        MatcherAssert.assertThat(
+            new ShardedLayout(2, 2).link(name, ShardedLayoutTest.DIGEST).string(),
+            new IsEqual<>(new DefaultLayout().link(name, ShardedLayoutTest.DIGEST).string())
+        );
+    }
+
+    @Test
+    void rejectsTooLongPrefix() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new ShardedLayout(5, 8)
+        );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.Blob;
+import com.artipie.docker.RepoName;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ShardedMigration} and reading blobs during migration.
+ *
+ * @since 0.18
+ */
+final class ShardedMigrationTest {
+
+    /**
+     * Storage.
+     */
+    private Storage storage;
+
+    /**
+     * Blob stored by default layout.
+     */
+    private Blob blob;
+
+    @BeforeEach
+    void setUp() {
+        this.storage = new InMemoryStorage();
+        this.blob = new AstoBlobs(this.storage, new DefaultLayout(), new RepoName.Simple("old"))
+            .put(new TrustedBlobSource("data".getBytes(StandardCharsets.UTF_8)))
+            .toCompletableFuture().join();
+    }
+
+    @Test
+    void findsLegacyBlob() {
+        MatcherAssert.assertThat(
+            this.sharded().blob(this.blob.digest()).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void copiesLegacyBlobs() {
+        final ShardedLayout layout = new ShardedLayout(2, 2);
+        MatcherAssert.assertThat(
+            "Blob is migrated",
+            new ShardedMigration(this.storage, layout, 2).run().toCompletableFuture().join(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Blob is stored by sharded key",
+            this.storage.exists(layout.blob(new RepoName.Simple("any"), this.blob.digest()))
+                .join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Legacy key is kept",
+            this.storage.exists(new BlobKey(this.blob.digest())).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Migration is idempotent",
+            new ShardedMigration(this.storage, layout).run().toCompletableFuture().join(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void deletesMigratedLegacyBlobs() {
+        final ShardedLayout layout = new ShardedLayout(2, 2);
+        final ShardedMigration migration = new ShardedMigration(this.storage, layout);
+        MatcherAssert.assertThat(
+            "Not migrated blob is not deleted",
+            migration.cleanup().toCompletableFuture().join(),
+            new IsEqual<>(0L)
+        );
+        migration.run().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Migrated blob is deleted",
+            migration.cleanup().toCompletableFuture().join(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Legacy key is removed",
+            this.storage.exists(new BlobKey(this.blob.digest())).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Migrated blob is found without legacy lookup",
+            new AstoBlobs(
+                this.storage, new ShardedLayout(new DefaultLayout(), 2, 2, false),
+                new RepoName.Simple("new")
+            ).blob(this.blob.digest()).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void invalidatesDeletedLegacyBlobsInCache() {
+        final ShardedLayout layout = new ShardedLayout(2, 2);
+        final BlobsCache cache = new BlobsCache();
+        final Key legacy = new BlobKey(this.blob.digest());
+        cache.size(legacy, 1L);
+        final ShardedMigration migration = new ShardedMigration(this.storage, layout, 2, cache);
+        migration.run().toCompletableFuture().join();
+        migration.cleanup().toCompletableFuture().join();
+        MatcherAssert.assertThat(cache.contains(legacy), new IsEqual<>(false));
+    }
+
+    private AstoBlobs sharded() {
+        return new AstoBlobs(this.storage, new ShardedLayout(2, 2), new RepoName.Simple("new"));
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link SubListingStorage}.
+ *
+ * @since 0.18
+ */
+final class SubListingStorageTest {
+
+    @Test
+    void shouldListChildrenUnderPrefix(@TempDir final Path dir) {
+        final FileListingStorage origin = new FileListingStorage(dir);
+        origin.save(new Key.From("docker", "tags", "1", "link"), Content.EMPTY).join();
+        origin.save(new Key.From("docker", "tags", "2", "link"), Content.EMPTY).join();
+        origin.save(new Key.From("other", "tags", "3", "link"), Content.EMPTY).join();
+        MatcherAssert.assertThat(
+            new SubListingStorage(new Key.From("docker"), origin)
+                .children(new Key.From("tags")).join(),
+            Matchers.containsInAnyOrder("1", "2")
+        );
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UploadUuid}.
+ *
+ * @since 0.18
+ */
+final class UploadUuidTest {
+
+    @Test
+    void shouldReadEncodedTime() {
+        final Instant time = Instant.parse("2022-03-04T05:06:07.089Z");
+        MatcherAssert.assertThat(
+            new UploadUuid(new UploadUuid(time).value()).started(),
+            new IsEqual<>(Optional.of(time))
+        );
+    }
+
+    @Test
+    void shouldBeValidUuid() {
+        final UUID uuid = UUID.fromString(new UploadUuid(Instant.now()).value());
+        MatcherAssert.assertThat(
+            "Version is 7",
+            uuid.version(),
+            new IsEqual<>(7)
+        );
+        MatcherAssert.assertThat(
+            "Variant is IETF",
+            uuid.variant(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void shouldGenerateUniqueValues() {
+        final Instant time = Instant.now();
+        MatcherAssert.assertThat(
+            new UploadUuid(time).value(),
+            new IsNot<>(new IsEqual<>(new UploadUuid(time).value()))
+        );
+    }
+
+    @Test
+    void shouldNotReadTimeFromRandomUuid() {
+        MatcherAssert.assertThat(
+            new UploadUuid(UUID.randomUUID().toString()).started().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void shouldNotReadTimeFromInvalidUuid() {
+        MatcherAssert.assertThat(
+            new UploadUuid("not-a-uuid").started().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.asto;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.RepoName;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.collection.IsEmptyCollection;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UploadsCollector}.
+ *
+ * @since 0.18
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class UploadsCollectorTest {
+
+    /**
+     * Current time.
+     */
+    private static final Instant NOW = Instant.parse("2022-06-01T12:00:00Z");
+
+    /**
+     * Storage.
+     */
+    private Storage storage;
+
+    /**
+     * Repository name.
+     */
+    private RepoName name;
+
+    @BeforeEach
+    void setUp() {
+        this.storage = new InMemoryStorage();
+        this.name = new RepoName.Valid("my/repo");
+    }
+
+    @Test
+    void shouldRemoveAbandonedUpload() {
+        final AstoUpload upload = this.upload(
+            new UploadUuid(UploadsCollectorTest.NOW.minus(Duration.ofDays(2))).value()
+        );
+        upload.start().toCompletableFuture().join();
+        upload.append(new Content.From("12345".getBytes())).toCompletableFuture().join();
+        final UploadsCollector collector = this.collector(10);
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Upload keys are removed",
+            this.storage.list(upload.root()).join(),
+            new IsEmptyCollection<>()
+        );
+        MatcherAssert.assertThat(
+            "Session is counted",
+            collector.sessions(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Chunk bytes are counted",
+            collector.bytes(),
+            new IsNot<>(new IsEqual<>(0L))
+        );
+    }
+
+    @Test
+    void shouldKeepActiveUpload() {
+        final AstoUpload upload = this.upload(
+            new UploadUuid(UploadsCollectorTest.NOW.minus(Duration.ofMinutes(5))).value()
+        );
+        upload.start().toCompletableFuture().join();
+        final UploadsCollector collector = this.collector(10);
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Upload keys are kept",
+            this.storage.list(upload.root()).join(),
+            new IsNot<>(new IsEmptyCollection<>())
+        );
+        MatcherAssert.assertThat(
+            "No sessions counted",
+            collector.sessions(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void shouldReadStartTimeFromState() {
+        final AstoUpload old = this.upload(UUID.randomUUID().toString());
+        old.start(UploadsCollectorTest.NOW.minus(Duration.ofDays(3)))
+            .toCompletableFuture().join();
+        final AstoUpload fresh = this.upload(UUID.randomUUID().toString());
+        fresh.start(UploadsCollectorTest.NOW).toCompletableFuture().join();
+        this.collector(10).sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Old upload is removed",
+            this.storage.list(old.root()).join(),
+            new IsEmptyCollection<>()
+        );
+        MatcherAssert.assertThat(
+            "Fresh upload is kept",
+            this.storage.list(fresh.root()).join(),
+            new IsNot<>(new IsEmptyCollection<>())
+        );
+    }
+
+    @Test
+    void shouldReadStartTimeFromLegacyMarker() {
+        final AstoUpload upload = this.upload(UUID.randomUUID().toString());
+        this.storage.save(
+            new Key.From(upload.root(), "started"),
+            new Content.From(
+                UploadsCollectorTest.NOW.minus(Duration.ofDays(2)).toString()
+                    .getBytes(StandardCharsets.US_ASCII)
+            )
+        ).join();
+        this.storage.save(
+            new Key.From(upload.root(), "sha256_abc"), new Content.From("abc".getBytes())
+        ).join();
+        final UploadsCollector collector = this.collector(10);
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Upload keys are removed",
+            this.storage.list(upload.root()).join(),
+            new IsEmptyCollection<>()
+        );
+        MatcherAssert.assertThat(
+            "Bytes of marker and chunk are counted",
+            collector.bytes(),
+            new IsEqual<>(23L)
+        );
+    }
+
+    @Test
+    void shouldKeepUploadWithoutStartTime() {
+        final AstoUpload upload = this.upload(UUID.randomUUID().toString());
+        this.storage.save(
+            new Key.From(upload.root(), "chunks", "0"), new Content.From("abc".getBytes())
+        ).join();
+        final UploadsCollector collector = this.collector(10);
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Upload keys are kept",
+            this.storage.list(upload.root()).join(),
+            new IsNot<>(new IsEmptyCollection<>())
+        );
+        MatcherAssert.assertThat(
+            "No sessions counted",
+            collector.sessions(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void shouldRemoveUploadFromStorageWithoutSize() {
+        final AstoUpload upload = this.upload(
+            new UploadUuid(UploadsCollectorTest.NOW.minus(Duration.ofDays(2))).value()
+        );
+        upload.start().toCompletableFuture().join();
+        upload.append(new Content.From("12345".getBytes())).toCompletableFuture().join();
+        final UploadsCollector collector = new UploadsCollector(
+            new Storage.Wrap(this.storage) {
+                @Override
+                public CompletableFuture<? extends Meta> metadata(final Key key) {
+                    return CompletableFuture.completedFuture(Meta.EMPTY);
+                }
+            },
+            new DefaultLayout(), Duration.ofDays(1), 10, 2,
+            Clock.fixed(UploadsCollectorTest.NOW, ZoneOffset.UTC)
+        );
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Upload keys are removed",
+            this.storage.list(upload.root()).join(),
+            new IsEmptyCollection<>()
+        );
+        MatcherAssert.assertThat(
+            "Session is counted",
+            collector.sessions(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void shouldLimitRemovedSessionsPerSweep() {
+        for (int idx = 0; idx < 5; ++idx) {
+            this.upload(
+                new UploadUuid(UploadsCollectorTest.NOW.minus(Duration.ofDays(2 + idx))).value()
+            ).start().toCompletableFuture().join();
+        }
+        final UploadsCollector collector = this.collector(2);
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Sessions removed up to limit",
+            collector.sessions(),
+            new IsEqual<>(2L)
+        );
+        collector.sweep().toCompletableFuture().join();
+        collector.sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "All sessions removed after several sweeps",
+            collector.sessions(),
+            new IsEqual<>(5L)
+        );
+    }
+
+    @Test
+    void shouldNotTouchOtherKeys() {
+        final Key manifest = new Key.From("repositories", "my", "repo", "_manifests", "tags");
+        this.storage.save(manifest, new Content.From("data".getBytes())).join();
+        this.collector(10).sweep().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.storage.exists(manifest).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    /**
+     * Create upload.
+     *
+     * @param uuid Upload UUID.
+     * @return Upload.
+     */
+    private AstoUpload upload(final String uuid) {
+        return new AstoUpload(this.storage, new DefaultLayout(), this.name, uuid);
+    }
+
+    /**
+     * Create collector of uploads older than a day.
+     *
+     * @param limit Max sessions per sweep.
+     * @return Collector.
+     */
+    private UploadsCollector collector(final int limit) {
+        return new UploadsCollector(
+            this.storage, new DefaultLayout(), Duration.ofDays(1), limit, 2,
+            Clock.fixed(UploadsCollectorTest.NOW, ZoneOffset.UTC)
+        );
+    }
+}
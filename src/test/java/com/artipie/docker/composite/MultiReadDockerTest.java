@@ -9,6 +9,7 @@ import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.asto.AstoDocker;
+import com.artipie.docker.asto.TrustedBlobSource;
 import com.artipie.docker.fake.FakeCatalogDocker;
 import com.artipie.docker.proxy.ProxyDocker;
 import com.artipie.http.rs.StandardRs;
@@ -17,6 +18,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.IsInstanceOf;
 import org.junit.jupiter.api.Test;
 import wtf.g4s8.hamcrest.json.JsonContains;
@@ -70,4 +72,22 @@ final class MultiReadDockerTest {
             )
         );
     }
+
+    @Test
+    void joinsRepositoriesContainingBlob() {
+        final AstoDocker first = new AstoDocker(new InMemoryStorage());
+        final AstoDocker second = new AstoDocker(new InMemoryStorage());
+        final TrustedBlobSource source = new TrustedBlobSource("blob".getBytes());
+        first.repo(new RepoName.Valid("one")).layers().put(source).toCompletableFuture().join();
+        second.repo(new RepoName.Valid("one")).layers().put(source).toCompletableFuture().join();
+        second.repo(new RepoName.Valid("two")).layers().put(source).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new MultiReadDocker(
+                new ProxyDocker((line, headers, body) -> StandardRs.EMPTY), first, second
+            ).repositories(source.digest()).toCompletableFuture().join().stream()
+                .map(RepoName::value)
+                .collect(Collectors.toList()),
+            Matchers.contains("one", "two")
+        );
+    }
 }
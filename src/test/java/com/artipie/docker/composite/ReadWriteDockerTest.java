@@ -6,14 +6,18 @@ package com.artipie.docker.composite;
 
 import com.artipie.asto.Content;
 import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.Blob;
 import com.artipie.docker.Catalog;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.asto.AstoDocker;
+import com.artipie.docker.asto.TrustedBlobSource;
 import com.artipie.docker.fake.FakeCatalogDocker;
 import com.artipie.docker.proxy.ProxyDocker;
 import com.artipie.http.rs.StandardRs;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
 import org.hamcrest.core.IsInstanceOf;
 import org.junit.jupiter.api.Test;
@@ -66,4 +70,28 @@ final class ReadWriteDockerTest {
         );
     }
 
+    @Test
+    void indexesBlobMountedFromReadRegistryAfterCopy() {
+        final AstoDocker read = new AstoDocker(new InMemoryStorage());
+        final AstoDocker write = new AstoDocker(new InMemoryStorage());
+        final Blob blob = read.repo(new RepoName.Simple("src")).layers()
+            .put(new TrustedBlobSource("layer".getBytes()))
+            .toCompletableFuture().join();
+        final RepoName dst = new RepoName.Simple("dst");
+        new ReadWriteDocker(read, write).repo(dst).layers()
+            .mount(blob).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Mounted blob is stored in write registry",
+            write.repo(dst).layers().get(blob.digest()).toCompletableFuture().join()
+                .isPresent(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Target repository is indexed",
+            write.repositories(blob.digest()).toCompletableFuture().join().stream()
+                .map(RepoName::value)
+                .collect(Collectors.toList()),
+            Matchers.contains("dst")
+        );
+    }
 }
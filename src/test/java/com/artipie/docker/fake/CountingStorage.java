@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.fake;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Storage;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Storage that counts operations performed on origin storage.
+ *
+ * @since 0.18
+ */
+public final class CountingStorage implements Storage {
+
+    /**
+     * Origin storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Operation counters by operation name.
+     */
+    private final Map<String, AtomicInteger> counters;
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin storage.
+     */
+    public CountingStorage(final Storage origin) {
+        this.origin = origin;
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Amount of performed operations with given name.
+     *
+     * @param operation Operation name, e.g. `save`.
+     * @return Amount of operations.
+     */
+    public int count(final String operation) {
+        return this.counters.getOrDefault(operation, new AtomicInteger()).get();
+    }
+
+    /**
+     * Amount of all performed operations.
+     *
+     * @return Amount of operations.
+     */
+    public int total() {
+        return this.counters.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /**
+     * Reset counters.
+     */
+    public void reset() {
+        this.counters.clear();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        this.inc("exists");
+        return this.origin.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<Collection<Key>> list(final Key prefix) {
+        this.inc("list");
+        return this.origin.list(prefix);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        this.inc("save");
+        return this.origin.save(key, content);
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        this.inc("move");
+        return this.origin.move(source, destination);
+    }
+
+    @Override
+    public CompletableFuture<? extends Meta> metadata(final Key key) {
+        this.inc("metadata");
+        return this.origin.metadata(key);
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        this.inc("value");
+        return this.origin.value(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        this.inc("delete");
+        return this.origin.delete(key);
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(
+        final Key key,
+        final Function<Storage, CompletionStage<T>> operation
+    ) {
+        this.inc("exclusively");
+        return this.origin.exclusively(key, operation);
+    }
+
+    /**
+     * Increment operation counter.
+     *
+     * @param operation Operation name.
+     */
+    private void inc(final String operation) {
+        this.counters.computeIfAbsent(operation, name -> new AtomicInteger()).incrementAndGet();
+    }
+}
@@ -30,6 +30,12 @@ import org.junit.jupiter.api.Test;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 class BlobEntityGetTest {
 
+    /**
+     * Path of example layer.
+     */
+    private static final String LAYER =
+        "/v2/test/blobs/sha256:aad63a9339440e7c3e1fff2b988991b9bfb81280042fa7f39a5e327023056819";
+
     /**
      * Slice being tested.
      */
@@ -66,6 +72,7 @@ class BlobEntityGetTest {
                 new BlockingStorage(new ExampleStorage()).value(expected),
                 new Header("Content-Length", "2803255"),
                 new Header("Docker-Content-Digest", digest),
+                new Header("ETag", String.format("\"%s\"", digest)),
                 new Header("Content-Type", "application/octet-stream")
             )
         );
@@ -88,4 +95,19 @@ class BlobEntityGetTest {
             new IsErrorsResponse(RsStatus.NOT_FOUND, "BLOB_UNKNOWN")
         );
     }
+
+    @Test
+    void shouldReturnWholeLayerForRange() {
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(RqMethod.GET, BlobEntityGetTest.LAYER).toString(),
+                new Headers.From("Range", "bytes=100-199"),
+                Flowable.empty()
+            ),
+            new ResponseMatcher(
+                RsStatus.OK,
+                new Header("Content-Length", "2803255")
+            )
+        );
+    }
 }
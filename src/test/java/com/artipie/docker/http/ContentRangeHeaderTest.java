@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.http;
+
+import com.artipie.docker.error.InvalidRangeException;
+import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test case for {@link ContentRangeHeader}.
+ *
+ * @since 0.18
+ */
+public final class ContentRangeHeaderTest {
+
+    @Test
+    void shouldHaveExpectedNameAndValue() {
+        final ContentRangeHeader header = new ContentRangeHeader(10, 19);
+        MatcherAssert.assertThat(
+            header.getKey(),
+            new IsEqual<>("Content-Range")
+        );
+        MatcherAssert.assertThat(
+            header.getValue(),
+            new IsEqual<>("10-19")
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1024-2047", "bytes 1024-2047", "bytes 1024-2047/4096"})
+    void shouldExtractRangeFromHeaders(final String value) {
+        final ContentRangeHeader header = new ContentRangeHeader(
+            new Headers.From(
+                new Header("Content-Type", "application/octet-stream"),
+                new Header("content-range", value)
+            )
+        );
+        MatcherAssert.assertThat(
+            "Start is extracted",
+            header.start(),
+            new IsEqual<>(1024L)
+        );
+        MatcherAssert.assertThat(
+            "End is extracted",
+            header.end(),
+            new IsEqual<>(2047L)
+        );
+    }
+
+    @Test
+    void shouldFailToParseInvalidValue() {
+        Assertions.assertThrows(
+            InvalidRangeException.class,
+            () -> new ContentRangeHeader(new Headers.From("Content-Range", "abc")).start()
+        );
+    }
+}
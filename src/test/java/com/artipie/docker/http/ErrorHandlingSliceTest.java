@@ -9,6 +9,7 @@ import com.artipie.asto.FailedCompletionStage;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.docker.error.InvalidDigestException;
 import com.artipie.docker.error.InvalidManifestException;
+import com.artipie.docker.error.InvalidRangeException;
 import com.artipie.docker.error.InvalidRepoNameException;
 import com.artipie.docker.error.InvalidTagNameException;
 import com.artipie.docker.error.UnsupportedError;
@@ -215,6 +216,11 @@ class ErrorHandlingSliceTest {
                 new InvalidDigestException("digest exception")
             ).map(err -> Arguments.of(err, RsStatus.BAD_REQUEST, err.code())),
             Stream.of(
+                Arguments.of(
+                    new InvalidRangeException("range exception"),
+                    RsStatus.BAD_RANGE,
+                    "BLOB_UPLOAD_INVALID"
+                ),
                 Arguments.of(
                     new UnsupportedOperationException(),
                     RsStatus.METHOD_NOT_ALLOWED,
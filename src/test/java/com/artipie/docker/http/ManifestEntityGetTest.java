@@ -114,6 +114,58 @@ class ManifestEntityGetTest {
         );
     }
 
+    @Test
+    void shouldReturnNotModifiedIfTagMatches() {
+        final String digest =
+            "sha256:cb8a924afdf0229ef7515d9e5b3024e23b3eb03ddbba287f4a19c6ac90b8d221";
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(RqMethod.GET, "/v2/my-alpine/manifests/1").toString(),
+                new com.artipie.http.Headers.From(
+                    new Headers(),
+                    new Header("If-None-Match", String.format("\"%s\"", digest))
+                ),
+                Flowable.empty()
+            ),
+            new AllOf<>(
+                new ListOf<Matcher<? super Response>>(
+                    new RsHasStatus(RsStatus.NOT_MODIFIED),
+                    new RsHasHeaders(
+                        new Header("ETag", String.format("\"%s\"", digest)),
+                        new Header("Docker-Content-Digest", digest)
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldReturnManifestIfTagDoesNotMatch() {
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(RqMethod.GET, "/v2/my-alpine/manifests/1").toString(),
+                new com.artipie.http.Headers.From(
+                    new Headers(),
+                    new Header("If-None-Match", "\"sha256:0123\"")
+                ),
+                Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.OK)
+        );
+    }
+
+    @Test
+    void shouldReturnNotFoundForConditionalRequestOfUnknownTag() {
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(RqMethod.GET, "/v2/my-alpine/manifests/2").toString(),
+                new com.artipie.http.Headers.From(new Header("If-None-Match", "*")),
+                Flowable.empty()
+            ),
+            new IsErrorsResponse(RsStatus.NOT_FOUND, "MANIFEST_UNKNOWN")
+        );
+    }
+
     private static byte[] bytes(final Key key) {
         return new PublisherAs(
             new ExampleStorage().value(key).join()
@@ -158,7 +210,8 @@ class ManifestEntityGetTest {
                             "Content-Type",
                             "application/vnd.docker.distribution.manifest.v2+json"
                         ),
-                        new Header("Docker-Content-Digest", digest)
+                        new Header("Docker-Content-Digest", digest),
+                        new Header("ETag", String.format("\"%s\"", digest))
                     ),
                     new RsHasBody(content)
                 )
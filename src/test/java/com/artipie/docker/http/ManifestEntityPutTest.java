@@ -9,7 +9,11 @@ import com.artipie.docker.Blob;
 import com.artipie.docker.Docker;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.asto.AstoDocker;
+import com.artipie.docker.asto.BlobsCache;
+import com.artipie.docker.asto.DefaultLayout;
+import com.artipie.docker.asto.LinksCache;
 import com.artipie.docker.asto.TrustedBlobSource;
+import com.artipie.docker.misc.HashingPool;
 import com.artipie.http.Headers;
 import com.artipie.http.headers.Header;
 import com.artipie.http.hm.ResponseMatcher;
@@ -92,6 +96,38 @@ class ManifestEntityPutTest {
         );
     }
 
+    @Test
+    void shouldRejectTooLargeManifestWithoutReadingBody() {
+        final Docker limited = new AstoDocker(
+            new InMemoryStorage(), new DefaultLayout(), new HashingPool(),
+            new BlobsCache(), new LinksCache(), 100
+        );
+        MatcherAssert.assertThat(
+            new DockerSlice(limited).response(
+                new RequestLine(RqMethod.PUT, "/v2/my-alpine/manifests/1").toString(),
+                new Headers.From(new Header("Content-Length", "101")),
+                Flowable.error(new IllegalStateException("Body should not be read"))
+            ),
+            new IsErrorsResponse(RsStatus.PAYLOAD_TOO_LARGE, "MANIFEST_INVALID")
+        );
+    }
+
+    @Test
+    void shouldRejectTooLargeManifestBody() {
+        final Docker limited = new AstoDocker(
+            new InMemoryStorage(), new DefaultLayout(), new HashingPool(),
+            new BlobsCache(), new LinksCache(), 10
+        );
+        MatcherAssert.assertThat(
+            new DockerSlice(limited).response(
+                new RequestLine(RqMethod.PUT, "/v2/my-alpine/manifests/1").toString(),
+                Headers.EMPTY,
+                this.manifest()
+            ),
+            new IsErrorsResponse(RsStatus.PAYLOAD_TOO_LARGE, "MANIFEST_INVALID")
+        );
+    }
+
     /**
      * Create manifest content.
      *
@@ -4,6 +4,7 @@
  */
 package com.artipie.docker.http;
 
+import com.artipie.asto.Content;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.docker.Docker;
 import com.artipie.docker.RepoName;
@@ -74,6 +75,75 @@ class UploadEntityPatchTest {
         );
     }
 
+    @Test
+    void shouldAppendChunkWithContentRange() {
+        final String name = "test";
+        final Upload upload = this.docker.repo(new RepoName.Valid(name)).uploads()
+            .start()
+            .toCompletableFuture().join();
+        upload.append(new Content.From("first".getBytes())).toCompletableFuture().join();
+        final String path = String.format("/v2/%s/blobs/uploads/%s", name, upload.uuid());
+        final byte[] data = "second".getBytes();
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(RqMethod.PATCH, path).toString(),
+                new Headers.From(new ContentRangeHeader(5, 10)),
+                Flowable.just(ByteBuffer.wrap(data))
+            ),
+            new ResponseMatcher(
+                RsStatus.ACCEPTED,
+                new Header("Location", path),
+                new Header("Range", "0-10"),
+                new Header("Content-Length", "0"),
+                new Header("Docker-Upload-UUID", upload.uuid())
+            )
+        );
+    }
+
+    @Test
+    void shouldAcceptOutOfOrderChunk() {
+        final String name = "test";
+        final Upload upload = this.docker.repo(new RepoName.Valid(name)).uploads()
+            .start()
+            .toCompletableFuture().join();
+        upload.append(new Content.From("first".getBytes())).toCompletableFuture().join();
+        final String path = String.format("/v2/%s/blobs/uploads/%s", name, upload.uuid());
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(RqMethod.PATCH, path).toString(),
+                new Headers.From(new ContentRangeHeader(10, 15)),
+                Flowable.just(ByteBuffer.wrap("third!".getBytes()))
+            ),
+            new ResponseMatcher(
+                RsStatus.ACCEPTED,
+                new Header("Location", path),
+                new Header("Range", "0-4"),
+                new Header("Content-Length", "0"),
+                new Header("Docker-Upload-UUID", upload.uuid())
+            )
+        );
+    }
+
+    @Test
+    void shouldReturnRangeNotSatisfiableWhenContentRangeMismatch() {
+        final String name = "test";
+        final Upload upload = this.docker.repo(new RepoName.Valid(name)).uploads()
+            .start()
+            .toCompletableFuture().join();
+        upload.append(new Content.From("first".getBytes())).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(
+                    RqMethod.PATCH,
+                    String.format("/v2/%s/blobs/uploads/%s", name, upload.uuid())
+                ).toString(),
+                new Headers.From(new ContentRangeHeader(0, 5)),
+                Flowable.just(ByteBuffer.wrap("second".getBytes()))
+            ),
+            new IsErrorsResponse(RsStatus.BAD_RANGE, "BLOB_UPLOAD_INVALID")
+        );
+    }
+
     @Test
     void shouldReturnNotFoundWhenUploadNotExists() {
         final Response response = this.slice.response(
@@ -5,22 +5,33 @@
 package com.artipie.docker.http;
 
 import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.docker.Digest;
 import com.artipie.docker.Docker;
 import com.artipie.docker.RepoName;
 import com.artipie.docker.asto.AstoDocker;
 import com.artipie.docker.asto.TrustedBlobSource;
+import com.artipie.docker.misc.HashingPool;
 import com.artipie.http.Headers;
 import com.artipie.http.Response;
+import com.artipie.http.auth.AuthScheme;
+import com.artipie.http.auth.Permissions;
+import com.artipie.http.headers.ContentLength;
 import com.artipie.http.headers.Header;
 import com.artipie.http.hm.IsHeader;
 import com.artipie.http.hm.ResponseMatcher;
+import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.hm.SliceHasResponse;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rq.RqMethod;
 import com.artipie.http.rs.RsStatus;
 import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
 import org.hamcrest.core.IsNot;
 import org.hamcrest.core.StringStartsWith;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,7 +42,7 @@ import org.junit.jupiter.api.Test;
  * Upload PUT endpoint.
  *
  * @since 0.2
- * @checkstyle ClassDataAbstractionCouplingCheck (2 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 class UploadEntityPostTest {
@@ -105,6 +116,156 @@ class UploadEntityPostTest {
         );
     }
 
+    @Test
+    void shouldMountBlobWithoutFrom() {
+        final Digest digest = this.docker.repo(new RepoName.Valid("base")).layers().put(
+            new TrustedBlobSource("base layer".getBytes())
+        ).toCompletableFuture().join().digest();
+        MatcherAssert.assertThat(
+            this.slice,
+            new SliceHasResponse(
+                new ResponseMatcher(
+                    RsStatus.CREATED,
+                    new Header(
+                        "Location", String.format("/v2/test/blobs/%s", digest.string())
+                    ),
+                    new Header("Content-Length", "0"),
+                    new Header("Docker-Content-Digest", digest.string())
+                ),
+                new RequestLine(
+                    RqMethod.POST,
+                    String.format("/v2/test/blobs/uploads/?mount=%s", digest.string())
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldMountBlobWithWrongFrom() {
+        final Digest digest = this.docker.repo(new RepoName.Valid("base")).layers().put(
+            new TrustedBlobSource("shared layer".getBytes())
+        ).toCompletableFuture().join().digest();
+        MatcherAssert.assertThat(
+            this.slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(
+                    RqMethod.POST,
+                    String.format(
+                        "/v2/test/blobs/uploads/?mount=%s&from=other", digest.string()
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldNotMountBlobFromRepositoryWithoutPullPermission() {
+        final Digest digest = this.docker.repo(new RepoName.Valid("private")).layers().put(
+            new TrustedBlobSource("secret layer".getBytes())
+        ).toCompletableFuture().join().digest();
+        MatcherAssert.assertThat(
+            new DockerSlice(
+                this.docker,
+                (user, action) -> !"repository:private:pull".equals(action),
+                new AuthScheme.Fake("alice")
+            ),
+            new SliceHasResponse(
+                isUploadStarted(),
+                new RequestLine(
+                    RqMethod.POST,
+                    String.format("/v2/test/blobs/uploads/?mount=%s", digest.string())
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldUploadBlobInSingleRequest() {
+        final byte[] data = "monolithic".getBytes();
+        final Digest digest = new Digest.Sha256(data);
+        MatcherAssert.assertThat(
+            "Responds with blob created",
+            this.slice.response(
+                new RequestLine(
+                    RqMethod.POST,
+                    String.format("/v2/test/blobs/uploads/?digest=%s", digest.string())
+                ).toString(),
+                new Headers.From(new ContentLength(data.length)),
+                Flowable.just(ByteBuffer.wrap(data))
+            ),
+            new ResponseMatcher(
+                RsStatus.CREATED,
+                new Header(
+                    "Location", String.format("/v2/test/blobs/%s", digest.string())
+                ),
+                new Header("Content-Length", "0"),
+                new Header("Docker-Content-Digest", digest.string())
+            )
+        );
+        MatcherAssert.assertThat(
+            "Blob is stored",
+            this.docker.repo(new RepoName.Simple("test")).layers().get(digest)
+                .toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void shouldHashSingleRequestUploadOnPool() {
+        final AtomicInteger tasks = new AtomicInteger();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final byte[] data = "pooled".getBytes();
+        final Digest digest = new Digest.Sha256(data);
+        try {
+            MatcherAssert.assertThat(
+                "Responds with blob created",
+                new DockerSlice(
+                    this.docker, Permissions.FREE, AuthScheme.NONE,
+                    new HashingPool(
+                        task -> {
+                            tasks.incrementAndGet();
+                            executor.execute(task);
+                        }
+                    )
+                ).response(
+                    new RequestLine(
+                        RqMethod.POST,
+                        String.format("/v2/test/blobs/uploads/?digest=%s", digest.string())
+                    ).toString(),
+                    new Headers.From(new ContentLength(data.length)),
+                    Flowable.just(ByteBuffer.wrap(data))
+                ),
+                new RsHasStatus(RsStatus.CREATED)
+            );
+        } finally {
+            executor.shutdown();
+        }
+        MatcherAssert.assertThat(
+            "Blob is hashed on pool",
+            tasks.get(),
+            Matchers.greaterThan(0)
+        );
+    }
+
+    @Test
+    void shouldFailSingleRequestUploadWithWrongDigest() {
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine(
+                    RqMethod.POST,
+                    String.format(
+                        "/v2/test/blobs/uploads/?digest=%s",
+                        new Digest.Sha256("something".getBytes()).string()
+                    )
+                ).toString(),
+                Headers.EMPTY,
+                Flowable.just(ByteBuffer.wrap("other".getBytes()))
+            ),
+            new IsErrorsResponse(RsStatus.BAD_REQUEST, "DIGEST_INVALID")
+        );
+    }
+
     private static ResponseMatcher isUploadStarted() {
         return new ResponseMatcher(
             RsStatus.ACCEPTED,
@@ -110,6 +110,29 @@ class UploadEntityRequestTest {
         );
     }
 
+    @Test
+    void shouldReadMonolithicDigestWhenPresent() {
+        MatcherAssert.assertThat(
+            new UploadEntity.Request(
+                new RequestLine(
+                    RqMethod.POST,
+                    "/v2/my-repo/blobs/uploads/?digest=sha256:12345"
+                ).toString()
+            ).monolithic().map(Digest::string),
+            new IsEqual<>(Optional.of("sha256:12345"))
+        );
+    }
+
+    @Test
+    void shouldReadMonolithicDigestWhenAbsent() {
+        MatcherAssert.assertThat(
+            new UploadEntity.Request(
+                new RequestLine(RqMethod.POST, "/v2/my-repo/blobs/uploads/").toString()
+            ).monolithic().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
     @Test
     void shouldReadMountWhenPresent() {
         final UploadEntity.Request request = new UploadEntity.Request(
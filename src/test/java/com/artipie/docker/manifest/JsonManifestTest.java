@@ -11,10 +11,16 @@ import java.net.URL;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.json.Json;
+import javax.json.JsonException;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
@@ -144,6 +150,43 @@ class JsonManifestTest {
         );
     }
 
+    @Test
+    void shouldReadLayersConcurrently() throws Exception {
+        final List<String> digests = IntStream.range(0, 500)
+            .mapToObj(idx -> String.format("sha256:%064x", idx))
+            .collect(Collectors.toList());
+        final JsonManifest manifest = new JsonManifest(
+            new Digest.Sha256("12345"),
+            Json.createObjectBuilder()
+                .add("mediaType", "my-type")
+                .add(
+                    "layers",
+                    Json.createArrayBuilder(
+                        digests.stream()
+                            .map(dig -> Collections.singletonMap("digest", dig))
+                            .collect(Collectors.toList())
+                    )
+                ).build().toString().getBytes()
+        );
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<String>>> results = exec.invokeAll(
+                Collections.nCopies(
+                    8,
+                    () -> manifest.layers().stream()
+                        .map(Layer::digest)
+                        .map(Digest::string)
+                        .collect(Collectors.toList())
+                )
+            );
+            for (final Future<List<String>> result : results) {
+                MatcherAssert.assertThat(result.get(), new IsEqual<>(digests));
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
     @Test
     void shouldReadLayerUrls() throws Exception {
         final String url = "https://artipie.com/";
@@ -169,6 +212,76 @@ class JsonManifestTest {
         );
     }
 
+    @Test
+    void shouldSkipUnknownFields() {
+        final JsonManifest manifest = new JsonManifest(
+            new Digest.Sha256("123"),
+            Json.createObjectBuilder()
+                .add(
+                    "annotations",
+                    Json.createObjectBuilder().add(
+                        "nested", Json.createArrayBuilder().add(Json.createObjectBuilder())
+                    )
+                )
+                .add(
+                    "config",
+                    Json.createObjectBuilder()
+                        .add("size", 1)
+                        .add("digest", "sha256:cfg")
+                )
+                .add(
+                    "layers",
+                    Json.createArrayBuilder().add(
+                        Json.createObjectBuilder()
+                            .add("annotations", Json.createObjectBuilder().add("digest", "x"))
+                            .add("digest", "sha256:layer")
+                    )
+                )
+                .add("mediaType", "my-type")
+                .build().toString().getBytes()
+        );
+        MatcherAssert.assertThat(
+            "Config digest is read",
+            manifest.config().string(),
+            new IsEqual<>("sha256:cfg")
+        );
+        MatcherAssert.assertThat(
+            "Layer digest is read",
+            manifest.layers().stream().map(Layer::digest).map(Digest::string)
+                .collect(Collectors.toList()),
+            Matchers.contains("sha256:layer")
+        );
+        MatcherAssert.assertThat(
+            "Media type is read",
+            manifest.mediaTypes(),
+            Matchers.contains("my-type")
+        );
+    }
+
+    @Test
+    void shouldFailWhenJsonIsInvalid() {
+        final JsonManifest manifest = new JsonManifest(
+            new Digest.Sha256("123"),
+            "[\"not an object\"]".getBytes()
+        );
+        Assertions.assertThrows(
+            JsonException.class,
+            manifest::config
+        );
+    }
+
+    @Test
+    void shouldFailWhenConfigIsAbsent() {
+        final JsonManifest manifest = new JsonManifest(
+            new Digest.Sha256("123"),
+            "{\"config\":{}}".getBytes()
+        );
+        Assertions.assertThrows(
+            InvalidManifestException.class,
+            manifest::config
+        );
+    }
+
     @Test
     void shouldFailWhenLayersAreAbsent() {
         final JsonManifest manifest = new JsonManifest(
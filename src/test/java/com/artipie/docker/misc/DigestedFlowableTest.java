@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.misc;
+
+import com.artipie.asto.Remaining;
+import com.artipie.docker.Digest;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DigestedFlowable}.
+ *
+ * @since 0.18
+ */
+final class DigestedFlowableTest {
+
+    @Test
+    void shouldCalculateDigestOfHeapBuffers() {
+        this.verify(
+            Flowable.just("one", "two", "three")
+                .map(str -> ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    @Test
+    void shouldCalculateDigestOfDirectBuffers() {
+        this.verify(
+            Flowable.just("one", "two", "three").map(
+                str -> {
+                    final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                    final ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+                    buf.put(bytes);
+                    buf.flip();
+                    return buf;
+                }
+            )
+        );
+    }
+
+    @Test
+    void shouldCalculateDigestOfReadOnlySlices() {
+        this.verify(
+            Flowable.just("xxoneyy", "xxtwoyy", "xxthreeyy").map(
+                str -> {
+                    final ByteBuffer buf = ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8))
+                        .asReadOnlyBuffer();
+                    buf.position(2);
+                    buf.limit(str.length() - 2);
+                    return buf;
+                }
+            )
+        );
+    }
+
+    /**
+     * Verify that digest of `onetwothree` is calculated
+     * and buffers are passed downstream unchanged.
+     *
+     * @param bufs Buffers.
+     */
+    private void verify(final Flowable<ByteBuffer> bufs) {
+        final DigestedFlowable digested = new DigestedFlowable(bufs);
+        final List<String> received = digested.toList().blockingGet().stream()
+            .map(buf -> new String(new Remaining(buf).bytes(), StandardCharsets.UTF_8))
+            .collect(Collectors.toList());
+        MatcherAssert.assertThat(
+            "Buffers are passed unchanged",
+            received,
+            Matchers.contains("one", "two", "three")
+        );
+        MatcherAssert.assertThat(
+            "Digest is calculated",
+            digested.digest().hex(),
+            new IsEqual<>(new Digest.Sha256("onetwothree".getBytes()).hex())
+        );
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/docker-adapter/LICENSE.txt
+ */
+package com.artipie.docker.misc;
+
+import com.artipie.asto.Remaining;
+import com.artipie.docker.Digest;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link HashingPool}.
+ *
+ * @since 0.18
+ */
+final class HashingPoolTest {
+
+    /**
+     * Executor.
+     */
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newFixedThreadPool(
+            2, runnable -> new Thread(runnable, "test-hashing")
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void shouldHashOnExecutorPreservingOrder() {
+        final HashingPool pool = new HashingPool(this.executor, 2);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final StringBuilder hashed = new StringBuilder();
+        final List<String> items = IntStream.range(0, 100).mapToObj(String::valueOf)
+            .collect(Collectors.toList());
+        final List<String> received = pool.hash(
+            Flowable.fromIterable(items).map(str -> ByteBuffer.wrap(str.getBytes())),
+            buf -> {
+                threads.add(Thread.currentThread().getName());
+                hashed.append(new String(new Remaining(buf, true).bytes()));
+            }
+        ).map(buf -> new String(new Remaining(buf).bytes())).toList().blockingGet();
+        MatcherAssert.assertThat(
+            "Buffers order is preserved",
+            received,
+            new IsEqual<>(items)
+        );
+        MatcherAssert.assertThat(
+            "Buffers are hashed in order",
+            hashed.toString(),
+            new IsEqual<>(String.join("", items))
+        );
+        MatcherAssert.assertThat(
+            "Buffers are hashed on executor",
+            threads,
+            Matchers.contains("test-hashing")
+        );
+    }
+
+    @Test
+    void shouldCollectMetrics() {
+        final HashingPool pool = new HashingPool(this.executor, 4);
+        pool.hash(
+            Flowable.range(0, 10).map(idx -> ByteBuffer.allocate(1)),
+            buf -> { }
+        ).blockingSubscribe();
+        MatcherAssert.assertThat(
+            "All buffers are hashed",
+            pool.buffers(),
+            new IsEqual<>(10L)
+        );
+        MatcherAssert.assertThat(
+            "No buffers are waiting",
+            pool.depth(),
+            new IsEqual<>(0L)
+        );
+        MatcherAssert.assertThat(
+            "Max depth is limited by buffer size",
+            pool.maxDepth(),
+            Matchers.allOf(Matchers.greaterThan(0L), Matchers.lessThanOrEqualTo(4L))
+        );
+    }
+
+    @Test
+    void shouldNotCountDroppedBuffersAsWaiting() {
+        final HashingPool pool = new HashingPool(this.executor, 4);
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> pool.hash(
+                Flowable.range(0, 10).map(idx -> ByteBuffer.allocate(1)),
+                buf -> {
+                    throw new IllegalStateException("Hashing failed");
+                }
+            ).blockingSubscribe()
+        );
+        MatcherAssert.assertThat(pool.depth(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void shouldNotCountCancelledBuffersAsWaiting() {
+        final HashingPool pool = new HashingPool(this.executor, 4);
+        pool.hash(
+            Flowable.range(0, 10).map(idx -> ByteBuffer.allocate(1)),
+            buf -> { }
+        ).take(1).blockingSubscribe();
+        MatcherAssert.assertThat(pool.depth(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void shouldCalculateDigestOnExecutor() {
+        final DigestedFlowable digested = new DigestedFlowable(
+            Flowable.just("abc", "def").map(str -> ByteBuffer.wrap(str.getBytes())),
+            new HashingPool(this.executor)
+        );
+        digested.blockingSubscribe();
+        MatcherAssert.assertThat(
+            digested.digest().hex(),
+            new IsEqual<>(new Digest.Sha256("abcdef".getBytes()).hex())
+        );
+    }
+
+    @Test
+    void shouldHashInline() {
+        final HashingPool pool = new HashingPool();
+        final String thread = Thread.currentThread().getName();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        pool.hash(
+            Flowable.just(ByteBuffer.allocate(1)),
+            buf -> threads.add(Thread.currentThread().getName())
+        ).blockingSubscribe();
+        MatcherAssert.assertThat(threads, Matchers.contains(thread));
+    }
+}